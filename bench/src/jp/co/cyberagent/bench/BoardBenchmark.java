@@ -0,0 +1,152 @@
+package jp.co.cyberagent.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardStorage;
+import jp.co.cyberagent.components.CellStore;
+import jp.co.cyberagent.components.PlayStatus;
+import jp.co.cyberagent.components.Square;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark the board's hot paths by board size and mine density:
+ * create the board, open random squares, toggle mine check on random
+ * squares, and get random squares
+ *
+ * Each click benchmark uses a new board with the same seed, so the
+ * results of the versions can be compared. The clicks are measured once
+ * per board (single shot), the board creation is not measured
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BoardBenchmark {
+
+    // number of click per invocation
+    private static final int CLICKS = 100;
+
+    // seed of the board and the clicks
+    private static final long SEED = 20181026l;
+
+    // board's height and width
+    @Param({"100", "1000"})
+    public int size;
+
+    // mine quantity per square, beginner and expert level
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    // board's mine quantity
+    private long mineQty;
+
+    // the clicked squares, row and column
+    private int[] clickRow;
+    private int[] clickCol;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+
+        mineQty = (long) ((long) size * size * density);
+
+        // the clicks are same for all invocations
+        Random rand = new Random(SEED);
+        clickRow = new int[CLICKS];
+        clickCol = new int[CLICKS];
+        for (int i = 0; i < CLICKS; i++) {
+            clickRow[i] = rand.nextInt(size);
+            clickCol[i] = rand.nextInt(size);
+        }
+
+    }
+
+    /**
+     * The played board, create new board for each iteration
+     */
+    @State(Scope.Thread)
+    public static class PlayState {
+
+        // the board
+        private Board board;
+
+        @Setup(Level.Iteration)
+        public void setUp(BoardBenchmark bench) throws GameException {
+            board = new Board(bench.size, bench.size, bench.mineQty,
+                              BoardStorage.HEAP, SEED);
+        }
+
+    }
+
+    @Benchmark
+    public Board createBoard() throws GameException {
+        return new Board(size, size, mineQty, BoardStorage.HEAP, SEED);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 50)
+    @OperationsPerInvocation(CLICKS)
+    public long openRandomSquare(PlayState play) throws GameException {
+
+        Board board = play.board;
+        CellStore grid = board.getCellStore();
+
+        for (int i = 0; i < CLICKS; i++) {
+
+            // skip the opened and checked square, the mine is opened too,
+            // the board is still playable after lose
+            if (!grid.isClosed(grid.indexOf(clickRow[i], clickCol[i])))
+                continue;
+
+            if (board.openSquare(clickRow[i], clickCol[i]) == PlayStatus.WIN)
+                break;
+
+        }
+
+        return board.getOpenedCount();
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 50)
+    @OperationsPerInvocation(CLICKS)
+    public long toggleRandomSquare(PlayState play) throws GameException {
+
+        Board board = play.board;
+        for (int i = 0; i < CLICKS; i++)
+            board.toggleMineCheckSquare(clickRow[i], clickCol[i]);
+
+        return board.getMineCheckedCount();
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 50)
+    @OperationsPerInvocation(CLICKS)
+    public int getRandomSquare(PlayState play) throws GameException {
+
+        Board board = play.board;
+        int opened = 0;
+
+        for (int i = 0; i < CLICKS; i++) {
+            Square square = board.getSquare(clickRow[i], clickCol[i]);
+            if (square.isOpened())
+                opened++;
+        }
+
+        return opened;
+
+    }
+
+}
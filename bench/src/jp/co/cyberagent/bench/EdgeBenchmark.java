@@ -0,0 +1,60 @@
+package jp.co.cyberagent.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardStorage;
+import jp.co.cyberagent.components.MineSquare;
+import jp.co.cyberagent.components.PlayStatus;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark open square on the edge heavy board
+ * The board has 3 rows and one mine only, so one click opens the long
+ * region that the top and bottom rows are on the board's edge, each
+ * opened square's neighbours are checked against the bounds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EdgeBenchmark {
+
+    // board's width
+    @Param({"10000", "60000"})
+    public int width;
+
+    // the board, create new board for each click
+    private Board board;
+
+    // the square that will be opened
+    private int chosenCol;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws GameException {
+
+        board = new Board(3, width, 1, BoardStorage.HEAP, 2015l);
+
+        // find the mine's column, open the end that is farther from it,
+        // so the larger side of the board is opened
+        int mineCol = 0;
+        for (int c = 0; c < width; c++) {
+            for (int r = 0; r < 3; r++) {
+                if (board.getSquare(r, c) instanceof MineSquare)
+                    mineCol = c;
+            }
+        }
+        chosenCol = mineCol < width / 2 ? width - 1 : 0;
+
+    }
+
+    @Benchmark
+    public PlayStatus openThinRegion() throws GameException {
+        return board.openSquare(1, chosenCol);
+    }
+
+}
@@ -0,0 +1,55 @@
+package jp.co.cyberagent.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.EmptySquare;
+import jp.co.cyberagent.components.PlayStatus;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark open square on a large empty region
+ * The board has one mine only, so one click opens almost all squares
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FloodFillBenchmark {
+
+    // board's height and width
+    @Param({"500", "1000"})
+    public int size;
+
+    // the board, create new board for each click
+    private Board board;
+
+    // the empty square that will be opened
+    private int[] chosen;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws GameException {
+
+        board = new Board(size, size, 1);
+
+        // find the empty square for open, the board has one mine only
+        chosen = null;
+        for (int r = 0; r < size && chosen == null; r++) {
+            for (int c = 0; c < size && chosen == null; c++) {
+                if (board.getSquare(r, c) instanceof EmptySquare)
+                    chosen = new int[] {r, c};
+            }
+        }
+
+    }
+
+    @Benchmark
+    public PlayStatus openLargeRegion() throws GameException {
+        return board.openSquare(chosen[0], chosen[1]);
+    }
+
+}
@@ -0,0 +1,76 @@
+package jp.co.cyberagent.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.logic.ConsoleGameController;
+import jp.co.cyberagent.ui.ConsoleView;
+import jp.co.cyberagent.ui.HeadlessGameView;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark the game controller's moves without display
+ * The headless view inputs the game setting, then toggles mine check on
+ * random squares, so the game is never ended by the moves. Each
+ * invocation plays a new game, the board creation is measured too
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GameBenchmark {
+
+    // number of move per invocation
+    private static final int MOVES = 10000;
+
+    // seed of the moves
+    private static final long SEED = 20181026l;
+
+    // board's height and width
+    @Param({"100", "1000"})
+    public int size;
+
+    // the headless view with the inputs
+    private HeadlessGameView view;
+
+    @Setup
+    public void setUp() {
+
+        // setting, the moves, back to main menu and exit
+        String[] inputs = new String[4 + MOVES * 2 + 2];
+        int i = 0;
+        inputs[i++] = "2";
+        inputs[i++] = String.valueOf(size);
+        inputs[i++] = String.valueOf(size);
+        inputs[i++] = String.valueOf(size * size / 8);
+
+        Random rand = new Random(SEED);
+        for (int m = 0; m < MOVES; m++) {
+            inputs[i++] = ConsoleView.getColumnIndex(rand.nextInt(size))
+                          + rand.nextInt(size);
+            inputs[i++] = "x";
+        }
+
+        inputs[i++] = "0";
+        inputs[i++] = "0";
+
+        view = new HeadlessGameView(inputs);
+
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long playMoves() throws Exception {
+
+        view.rewind();
+        ConsoleGameController controller = new ConsoleGameController(view);
+        controller.run();
+
+        return controller.getPlayedMoveCount();
+
+    }
+
+}
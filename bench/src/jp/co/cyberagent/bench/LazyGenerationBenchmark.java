@@ -0,0 +1,43 @@
+package jp.co.cyberagent.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardGeneration;
+import jp.co.cyberagent.components.BoardStorage;
+import jp.co.cyberagent.components.PlayStatus;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark the startup of the large board: create board and open the
+ * first square, eager generation against lazy generation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LazyGenerationBenchmark {
+
+    // board's height and width
+    @Param({"4000", "10000"})
+    public int size;
+
+    // board's generation mode
+    @Param({"EAGER", "LAZY"})
+    public BoardGeneration generation;
+
+    @Benchmark
+    public PlayStatus createAndOpenFirstSquare() throws GameException {
+
+        Board board = new Board(size, size, (long) size * size / 5,
+                                BoardStorage.HEAP, generation, 2015l);
+
+        return board.openSquare(size / 2, size / 2);
+
+    }
+
+}
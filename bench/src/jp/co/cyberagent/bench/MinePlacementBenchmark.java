@@ -0,0 +1,43 @@
+package jp.co.cyberagent.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark create the board with the mine density
+ * The dense board has many collision when place mine randomly
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MinePlacementBenchmark {
+
+    // board's height and width
+    @Param({"100", "1000"})
+    public int size;
+
+    // mine quantity per square
+    @Param({"0.2", "0.5", "0.9"})
+    public double density;
+
+    // board's mine quantity
+    private long mineQty;
+
+    @Setup
+    public void setUp() {
+        mineQty = (long) (size * size * density);
+    }
+
+    @Benchmark
+    public Board createBoard() throws GameException {
+        return new Board(size, size, mineQty);
+    }
+
+}
@@ -0,0 +1,43 @@
+package jp.co.cyberagent.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.exceptions.GameException;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark create the large board, the creation time is dominated by
+ * computing the number of mine around each square
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NumberFillBenchmark {
+
+    // board's height and width
+    @Param({"1000", "4000"})
+    public int size;
+
+    // mine quantity per square, the density of expert level
+    @Param({"0.2"})
+    public double density;
+
+    // board's mine quantity
+    private long mineQty;
+
+    @Setup
+    public void setUp() {
+        mineQty = (long) ((long) size * size * density);
+    }
+
+    @Benchmark
+    public Board createBoard() throws GameException {
+        return new Board(size, size, mineQty);
+    }
+
+}
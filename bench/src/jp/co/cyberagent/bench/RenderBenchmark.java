@@ -0,0 +1,152 @@
+package jp.co.cyberagent.bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardStorage;
+import jp.co.cyberagent.components.CellStore;
+import jp.co.cyberagent.exceptions.GameException;
+import jp.co.cyberagent.ui.ConsoleView;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark display the full board in console, the same board is
+ * displayed repeatedly. The board's height and width are changed, the
+ * wide board has the 2 lines header (a to z, aa to all). The output is
+ * encoded and discarded, so the time is the view's time without the
+ * terminal
+ *
+ * The writes and flushes that reach the output stream are counted with
+ * the frames, each of them is one system call on the terminal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderBenchmark {
+
+    // seed of the board and the clicks
+    private static final long SEED = 20181026l;
+
+    // board's height
+    @Param({"26", "1000", "10000"})
+    public int rows;
+
+    // board's width
+    @Param({"26", "1000"})
+    public int cols;
+
+    // mine quantity per square, beginner and expert level
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    // display with ANSI colour or not
+    @Param({"false", "true"})
+    public boolean color;
+
+    // the half played board
+    private Board board;
+
+    // the console view
+    private ConsoleView view;
+
+    // the output counter that the discarded stream updates
+    private OutputCounter counter;
+
+    /**
+     * The output stream's write and flush count, the counts are summed
+     * over the iterations, divide by the frames for the count per frame
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputCounter {
+
+        // number of frame, write and flush
+        public long frames;
+        public long writes;
+        public long flushes;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            frames = 0;
+            writes = 0;
+            flushes = 0;
+        }
+
+    }
+
+    @Setup
+    public void setUp() throws GameException, IOException {
+
+        long mineQty = (long) ((long) rows * cols * density);
+        board = new Board(rows, cols, mineQty, BoardStorage.HEAP, SEED);
+
+        // open and mine check random squares, so the board has all glyphs
+        CellStore grid = board.getCellStore();
+        Random rand = new Random(SEED);
+        for (int i = 0; i < rows * cols / 4; i++) {
+
+            int r = rand.nextInt(rows);
+            int c = rand.nextInt(cols);
+            if (!grid.isClosed(grid.indexOf(r, c)))
+                continue;
+
+            if (i % 8 == 0)
+                board.toggleMineCheckSquare(r, c);
+            else
+                board.openSquare(r, c);
+
+        }
+
+        // discard the output, count the write and flush
+        OutputStream nullStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                counter.writes++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                counter.writes++;
+            }
+
+            @Override
+            public void flush() {
+                counter.flushes++;
+            }
+        };
+
+        view = new ConsoleView(
+                new BufferedReader(new StringReader("")),
+                new BufferedWriter(new OutputStreamWriter(nullStream))
+        );
+
+        // display the whole board, not the default viewport
+        view.setViewport(rows, cols);
+        view.setColor(color);
+
+    }
+
+    @Benchmark
+    public Board displayBoard(OutputCounter counter)
+            throws GameException, IOException {
+
+        this.counter = counter;
+        view.displayBoard(board);
+        counter.frames++;
+
+        return board;
+
+    }
+
+}
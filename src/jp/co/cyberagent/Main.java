@@ -1,20 +1,387 @@
-package jp.co.cyberagent;
-
-import jp.co.cyberagent.logic.ConsoleGameController;
-
-public class Main {
-
-    public static void main(String[] args) {
-
-        // run application
-        try {
-            (new ConsoleGameController()).run();
-        } catch (Exception e) {
-            e.printStackTrace();
-
-            // exit game
-            System.exit(0);
-        }
-
-    }
-}
+package jp.co.cyberagent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.logic.ConsoleGameController;
+import jp.co.cyberagent.ui.AsyncGameView;
+import jp.co.cyberagent.ui.BinaryFrameView;
+import jp.co.cyberagent.ui.ChannelInput;
+import jp.co.cyberagent.ui.ConsoleView;
+import jp.co.cyberagent.ui.GameView;
+import jp.co.cyberagent.ui.HeadlessGameView;
+import jp.co.cyberagent.ui.RenderMode;
+import jp.co.cyberagent.ui.RunLengthDecoder;
+
+public class Main {
+
+    // render mode option, Ex: --render=diff
+    private static final String OPT_RENDER = "--render=";
+
+    // viewport size option, rows x columns, Ex: --viewport=24x80
+    private static final String OPT_VIEWPORT = "--viewport=";
+
+    // display the square with ANSI colour option
+    private static final String OPT_COLOR = "--color";
+
+    // display the board on the renderer thread option
+    private static final String OPT_ASYNC = "--async";
+
+    // maximum frame per second option, 0 for the final frame only,
+    // the board is displayed on the renderer thread, Ex: --fps=10
+    private static final String OPT_FPS = "--fps=";
+
+    // read the user input from the non-blocking channel option, the game
+    // thread waits on the selector instead of the blocking read
+    private static final String OPT_NIO = "--nio";
+
+    // play the inputs without display option, the inputs are read from
+    // the standard input before playing
+    private static final String OPT_HEADLESS = "--headless";
+
+    // play the inputs without display option, the inputs are streamed
+    // from the file or the standard input while playing, Ex: --batch,
+    // --batch=moves.txt
+    private static final String OPT_BATCH = "--batch";
+
+    // the seed for the boards option, the same inputs give same outcome,
+    // Ex: --seed=42
+    private static final String OPT_SEED = "--seed=";
+
+    // write the board as binary frames to the file option,
+    // Ex: --record=game.bin
+    private static final String OPT_RECORD = "--record=";
+
+    // decode the run-length encoded output from the standard input option
+    private static final String OPT_DECODE = "--decode";
+
+    public static void main(String[] args) {
+
+        // run application
+        try {
+
+            // get the options, the board is displayed fully by default
+            RenderMode renderMode = RenderMode.FULL;
+            int viewportRows = ConsoleView.DEFAULT_VIEWPORT_ROWS;
+            int viewportCols = ConsoleView.DEFAULT_VIEWPORT_COLS;
+            boolean color = false;
+            boolean async = false;
+            int frameRate = -1;
+            boolean nio = false;
+            boolean headless = false;
+            boolean batch = false;
+            String batchPath = null;
+            Long seed = null;
+            String recordPath = null;
+            boolean decode = false;
+            for (String arg : args) {
+                if (arg.startsWith(OPT_RENDER)) {
+                    renderMode = RenderMode.valueOf(
+                            arg.substring(OPT_RENDER.length()).toUpperCase());
+                } else if (arg.startsWith(OPT_VIEWPORT)) {
+                    String[] viewport =
+                            arg.substring(OPT_VIEWPORT.length()).split("x");
+                    viewportRows = Integer.parseInt(viewport[0]);
+                    viewportCols = Integer.parseInt(viewport[1]);
+                } else if (arg.equals(OPT_COLOR)) {
+                    color = true;
+                } else if (arg.equals(OPT_ASYNC)) {
+                    async = true;
+                } else if (arg.startsWith(OPT_FPS)) {
+                    async = true;
+                    frameRate = Integer.parseInt(
+                            arg.substring(OPT_FPS.length()));
+                } else if (arg.equals(OPT_NIO)) {
+                    nio = true;
+                } else if (arg.equals(OPT_HEADLESS)) {
+                    headless = true;
+                } else if (arg.equals(OPT_BATCH)) {
+                    batch = true;
+                } else if (arg.startsWith(OPT_BATCH + "=")) {
+                    batch = true;
+                    batchPath = arg.substring(OPT_BATCH.length() + 1);
+                } else if (arg.startsWith(OPT_SEED)) {
+                    seed = Long.parseLong(arg.substring(OPT_SEED.length()));
+                } else if (arg.startsWith(OPT_RECORD)) {
+                    recordPath = arg.substring(OPT_RECORD.length());
+                } else if (arg.equals(OPT_DECODE)) {
+                    decode = true;
+                }
+            }
+
+            // decode the saved output, do not play
+            if (decode) {
+                BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(System.out));
+                RunLengthDecoder.decode(
+                        new BufferedReader(new InputStreamReader(System.in)),
+                        writer);
+                writer.flush();
+                return;
+            }
+
+            // play the inputs without display, show the outcome only
+            if (headless) {
+                playHeadless(recordPath, seed);
+                return;
+            }
+
+            // play the streamed inputs without display, show the final
+            // status only
+            if (batch) {
+                playBatch(batchPath, recordPath, seed);
+                return;
+            }
+
+            // create the console view
+            BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(System.out));
+            ConsoleView view = nio
+                    ? new ConsoleView(ChannelInput.open(System.in),
+                                      writer,
+                                      renderMode)
+                    : new ConsoleView(
+                            new BufferedReader(
+                                    new InputStreamReader(System.in)),
+                            writer,
+                            renderMode);
+            view.setViewport(viewportRows, viewportCols);
+            view.setColor(color);
+
+            // write the board frames to the file too
+            GameView gameView = view;
+            FileChannel record = null;
+            if (recordPath != null) {
+                record = record(recordPath);
+                gameView = new BinaryFrameView(gameView, record);
+            }
+
+            // display the board on the renderer thread, the input is
+            // handled without waiting for the board
+            // in diff mode the frame clears below the board, the prompt
+            // is written after the frame
+            AsyncGameView asyncView = null;
+            if (async) {
+                asyncView = frameRate >= AsyncGameView.FINAL_FRAME_ONLY
+                            ? new AsyncGameView(gameView, frameRate)
+                            : new AsyncGameView(gameView);
+                asyncView.setPromptAfterFrame(
+                        renderMode == RenderMode.DIFF);
+                gameView = asyncView;
+            }
+
+            try {
+                controller(gameView, seed).run();
+            } finally {
+                // display the final frame (Ex: the inputs end without
+                // exit), then stop the renderer thread
+                // the record file is closed after the final frame
+                try {
+                    if (asyncView != null)
+                        asyncView.close();
+                } finally {
+                    if (record != null)
+                        record.close();
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+
+            // exit game
+            System.exit(0);
+        }
+
+    }
+
+    /**
+     * Open the record file, the old file is replaced
+     *
+     * @param path the record file's path
+     *
+     * @return FileChannel the channel that writes the file
+     *
+     * @throws IOException raise when open the file error
+     */
+    private static FileChannel record(String path) throws IOException {
+        return FileChannel.open(Paths.get(path),
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Create the console game controller, with the seed for the boards
+     *
+     * @param view the view
+     * @param seed the seed, null for the random boards
+     *
+     * @return ConsoleGameController the controller
+     */
+    private static ConsoleGameController controller(GameView view,
+                                                    Long seed) {
+
+        if (seed == null)
+            return new ConsoleGameController(view);
+
+        return new ConsoleGameController(view, seed);
+
+    }
+
+    /**
+     * Read all inputs from the standard input, play them without display,
+     * then show the outcome and the play time
+     *
+     * @param recordPath the file that the board frames are written to,
+     *                   null for not record
+     * @param seed the seed for the boards, null for the random boards
+     *
+     * @throws Exception raise when the game has error
+     */
+    private static void playHeadless(String recordPath, Long seed)
+            throws Exception {
+
+        // read the inputs, the reading is not measured
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(System.in));
+        List<String> inputs = new ArrayList<String>();
+        String line;
+        while ((line = reader.readLine()) != null)
+            inputs.add(line);
+
+        // play the inputs
+        HeadlessGameView view = new HeadlessGameView(inputs);
+        FileChannel record = recordPath == null ? null : record(recordPath);
+        ConsoleGameController controller;
+        long time;
+        try {
+            controller = controller(view, record, seed);
+
+            long start = System.nanoTime();
+            controller.run();
+            time = System.nanoTime() - start;
+        } finally {
+            if (record != null)
+                record.close();
+        }
+
+        // show the outcome
+        System.out.println(String.format(
+                "moves %d, displayed %d, wins %d, loses %d, messages %d",
+                controller.getPlayedMoveCount(),
+                view.getDisplayedMoveCount(),
+                view.getWinCount(),
+                view.getLoseCount(),
+                view.getMessageCount()));
+        System.out.println(String.format(
+                "time %.3f ms, %.0f moves/s",
+                time / 1e6,
+                controller.getPlayedMoveCount() * 1e9 / Math.max(time, 1)));
+
+    }
+
+    /**
+     * Stream the inputs from the file or the standard input, play them
+     * without display, then show the final status and the play time
+     * The inputs are read while playing, so the large move log is not
+     * kept in memory, the reading is measured
+     *
+     * @param path the inputs file, null for the standard input
+     * @param recordPath the file that the board frames are written to,
+     *                   null for not record
+     * @param seed the seed for the boards, null for the random boards
+     *
+     * @throws Exception raise when the game has error
+     */
+    private static void playBatch(String path, String recordPath, Long seed)
+            throws Exception {
+
+        BufferedReader reader = path == null
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Paths.get(path),
+                                          StandardCharsets.UTF_8);
+
+        HeadlessGameView view = new HeadlessGameView(reader);
+        FileChannel record = null;
+        ConsoleGameController controller;
+        long time;
+        try {
+            if (recordPath != null)
+                record = record(recordPath);
+            controller = controller(view, record, seed);
+
+            long start = System.nanoTime();
+            controller.run();
+            time = System.nanoTime() - start;
+        } finally {
+            try {
+                reader.close();
+            } finally {
+                if (record != null)
+                    record.close();
+            }
+        }
+
+        // show the final status, the last board and the counts
+        Board board = view.getLastBoard();
+        if (board == null) {
+            System.out.println("status none, no game is played");
+        } else {
+            int[] size = board.getSize();
+            System.out.println(String.format(
+                    "status %s, board %dx%d, opened %d, mine checked %d",
+                    view.getLastStatus().name().toLowerCase(),
+                    size[0],
+                    size[1],
+                    board.getOpenedCount(),
+                    board.getMineCheckedCount()));
+        }
+        System.out.println(String.format(
+                "moves %d, displayed %d, coalesced %d, wins %d, loses %d, " +
+                "messages %d",
+                controller.getPlayedMoveCount(),
+                view.getDisplayedMoveCount(),
+                controller.getCoalescedMoveCount(),
+                view.getWinCount(),
+                view.getLoseCount(),
+                view.getMessageCount()));
+        System.out.println(String.format(
+                "time %.3f ms, %.0f moves/s",
+                time / 1e6,
+                controller.getPlayedMoveCount() * 1e9 / Math.max(time, 1)));
+
+    }
+
+    /**
+     * Create the console game controller for the headless view, write the
+     * board frames to the record file
+     *
+     * @param view the headless view
+     * @param record the record file that the board frames are written to,
+     *               null for not record
+     * @param seed the seed for the boards, null for the random boards
+     *
+     * @return ConsoleGameController the controller
+     */
+    private static ConsoleGameController controller(HeadlessGameView view,
+                                                    FileChannel record,
+                                                    Long seed) {
+
+        GameView gameView = view;
+        if (record != null)
+            gameView = new BinaryFrameView(view, record);
+
+        return controller(gameView, seed);
+
+    }
+}
@@ -1,14 +1,15 @@
 package jp.co.cyberagent.components;
 
+import java.math.BigInteger;
 import java.util.Random;
-import java.util.Stack;
 
 import jp.co.cyberagent.components.exceptions.*;
 
 /**
  * Created by phucnh on 14/12/31.
  * The game's element: Board
- * Each board contain a grid of squares
+ * Each board contain a grid of cells, the cells are packed in a cell store
+ * and exposed as squares when get square
  */
 public class Board {
 
@@ -21,16 +22,58 @@ public class Board {
     public static final int MIN_HEIGHT = 3;
     public static final long MAX_HEIGHT = 60000;
 
+    // maximum number of changed square that are kept between two frames,
+    // when over, the view displays the whole board
+    public static final int MAX_CHANGED_SQUARE = 1 << 16;
+
+    // lazy generation tile size, 2^6 (64) x 64 squares
+    private static final int TILE_SHIFT = 6;
+
+    // lazy generation tile state
+    // mines of tile have not been placed
+    private static final byte TILE_EMPTY = 0;
+    // mines of tile have been placed
+    private static final byte TILE_MINED = 1;
+    // mines of tile and neighbour tiles have been placed,
+    // the numbers of tile are correct
+    private static final byte TILE_READY = 2;
+
+    // neighbour direction: top left, top, top right, right,
+    // bottom right, bottom, bottom left, left
+    private static final int[] NEIGHBOR_ROW = {-1, -1, -1, 0, 1, 1, 1, 0};
+    private static final int[] NEIGHBOR_COL = {-1, 0, 1, 1, 1, 0, -1, -1};
+
     // Board attributes
-    // grid, array of square
-    private Square[][] grid;
-    private Integer height;
-    private Integer width;
-    private Long mineQty;
-    private Long openedMineCount;
+    // grid, the packed cells
+    private CellStore grid;
+    private int height;
+    private int width;
+    private long mineQty;
+    private long openedMineCount;
+    private long mineCheckedCount;
+
+    // number of square that are not mine, win when all are opened
+    private long safeSquareQty;
+    private long seed;
+
+    // neighbour cell index offset by direction
+    private long[] neighborOffset;
+
+    // stack of cell index, reuse when open related square(s)
+    private IndexStack openStack;
+
+    // cell index of the opened or toggled squares since the changes are
+    // cleared, the overflow is set when over the maximum
+    private IndexStack changedSquares;
+    private boolean changeOverflowed;
+
+    // lazy generation tile states, null when board is generated eagerly
+    private byte[] tileState;
+    private int tileRows;
+    private int tileCols;
 
     /**
-     * Board constructor, create game board
+     * Board constructor, create game board, the cells are kept on heap
      *
      * @param height board's height
      * @param width board's width
@@ -42,6 +85,83 @@ public class Board {
     public Board(int height, int width, long mineQty)
             throws BoardCreateUnable,
                    SquareWrongValueException {
+        this(height, width, mineQty, BoardStorage.HEAP);
+    }
+
+    /**
+     * Board constructor, create game board
+     *
+     * @param height board's height
+     * @param width board's width
+     * @param mineQty board's mine quantity
+     * @param storage where the board's cells are kept (heap, mapped file,
+     *        chunks)
+     *
+     * @throws BoardCreateUnable if height, width, mine quantity are within
+     *         invalid range, or the storage cannot be created
+     * @throws SquareWrongValueException
+     */
+    public Board(int height, int width, long mineQty, BoardStorage storage)
+            throws BoardCreateUnable,
+                   SquareWrongValueException {
+        this(height, width, mineQty, storage, new Random().nextLong());
+    }
+
+    /**
+     * Board constructor, create game board, generate all squares eagerly
+     * The board that created by same seed has same mine squares
+     *
+     * @param height board's height
+     * @param width board's width
+     * @param mineQty board's mine quantity
+     * @param storage where the board's cells are kept (heap, mapped file,
+     *        chunks)
+     * @param seed the seed for allocate mine randomly
+     *
+     * @throws BoardCreateUnable if height, width, mine quantity are within
+     *         invalid range, or the storage cannot be created
+     * @throws SquareWrongValueException
+     */
+    public Board(int height,
+                 int width,
+                 long mineQty,
+                 BoardStorage storage,
+                 long seed)
+            throws BoardCreateUnable,
+                   SquareWrongValueException {
+        this(height, width, mineQty, storage, BoardGeneration.EAGER, seed);
+    }
+
+    /**
+     * Board constructor, create game board
+     * The board that created by same seed and generation has same
+     * mine squares
+     *
+     * When the generation is lazy, the mines and numbers are generated by
+     * tile when the tile is read first time (get square, open square),
+     * each tile is generated from the seed and the tile index only, so the
+     * result does not depend on the order of reading
+     *
+     * @param height board's height
+     * @param width board's width
+     * @param mineQty board's mine quantity
+     * @param storage where the board's cells are kept (heap, mapped file,
+     *        chunks)
+     * @param generation when the squares are generated (eager, lazy)
+     * @param seed the seed for allocate mine randomly
+     *
+     * @throws BoardCreateUnable if height, width, mine quantity are within
+     *         invalid range, or the storage cannot be created
+     * @throws SquareWrongValueException
+     */
+    public Board(int height,
+                 int width,
+                 long mineQty,
+                 BoardStorage storage,
+                 BoardGeneration generation,
+                 long seed)
+            throws BoardCreateUnable,
+                   SquareWrongValueException {
 
         //.validate the board input
         // validate height
@@ -61,7 +181,7 @@ public class Board {
             );
 
         // validate mine quality
-        long maxNumMine = height * width - 1;
+        long maxNumMine = (long) height * width - 1;
         if (mineQty < 1 || mineQty > maxNumMine)
             throw new BoardCreateUnable(
                     String.format(
@@ -74,15 +194,41 @@ public class Board {
         this.height = height;
         this.width = width;
         this.mineQty = mineQty;
+        this.seed = seed;
+        this.safeSquareQty = (long) height * width - mineQty;
 
         // create gird
-        this.grid = new Square[height][width];
+        if (storage == BoardStorage.MAPPED)
+            this.grid = new MappedCellStore(height, width);
+        else if (storage == BoardStorage.CHUNKED)
+            this.grid = new ChunkedCellStore(height, width);
+        else
+            this.grid = new HeapCellStore(height, width);
+
+        // precompute neighbour offsets
+        this.neighborOffset = new long[NEIGHBOR_ROW.length];
+        for (int dir = 0; dir < NEIGHBOR_ROW.length; dir++) {
+            this.neighborOffset[dir] =
+                    (long) NEIGHBOR_ROW[dir] * width + NEIGHBOR_COL[dir];
+        }
+        this.openStack = new IndexStack();
+        this.changedSquares = new IndexStack();
+        this.changeOverflowed = false;
 
         // when create new board
-        // set opened mine count is 0
+        // set opened mine count and mine checked count are 0
         this.openedMineCount = 0l;
-        // generate grid with allocate mine randomly
-        this.fill();
+        this.mineCheckedCount = 0l;
+
+        if (generation == BoardGeneration.LAZY) {
+            // generate grid by tile when the tile is read
+            this.tileRows = ((height - 1) >> TILE_SHIFT) + 1;
+            this.tileCols = ((width - 1) >> TILE_SHIFT) + 1;
+            this.tileState = new byte[this.tileRows * this.tileCols];
+        } else {
+            // generate grid with allocate mine randomly
+            this.fill();
+        }
 
     }
 
@@ -107,6 +253,90 @@ public class Board {
         return new int[] {this.height, this.width};
     }
 
+    /**
+     * Get number of opened square
+     *
+     * @return long the number of opened square
+     */
+    public long getOpenedCount() {
+        return this.openedMineCount;
+    }
+
+    /**
+     * Get number of mine checked square
+     *
+     * @return long the number of mine checked square
+     */
+    public long getMineCheckedCount() {
+        return this.mineCheckedCount;
+    }
+
+    /**
+     * Get board's cell store, use for inspect the storage
+     * (Ex: chunk allocation of chunked storage)
+     *
+     * @return CellStore the cell store
+     */
+    public CellStore getCellStore() {
+        return this.grid;
+    }
+
+    /**
+     * Release board's cell store (Ex: the mapped file), the board cannot
+     * be used after it is closed
+     */
+    public void close() {
+        this.grid.close();
+    }
+
+    /**
+     * Get board's seed, the seed that allocate mine randomly
+     *
+     * @return long the seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Get number of changed square (opened or toggled) since the changes
+     * are cleared
+     *
+     * @return int the number of changed square
+     */
+    public int getChangedCount() {
+        return this.changedSquares.size();
+    }
+
+    /**
+     * Get the cell index of changed square
+     *
+     * @param i the changed square's position, from 0 to changed count - 1
+     *
+     * @return long the cell index
+     */
+    public long getChangedSquare(int i) {
+        return this.changedSquares.get(i);
+    }
+
+    /**
+     * Check is the number of changed square over the maximum, then the
+     * changed squares are not complete
+     *
+     * @return boolean is changed squares overflowed or not
+     */
+    public boolean isChangeOverflowed() {
+        return this.changeOverflowed;
+    }
+
+    /**
+     * Clear the changed squares, call after the board is displayed
+     */
+    public void clearChanges() {
+        this.changedSquares.clear();
+        this.changeOverflowed = false;
+    }
+
     /**
      * Toggle board's square by index
      *
@@ -126,9 +356,13 @@ public class Board {
         checkChooseSquareIndex(row, col);
 
         // toggle square's mine check
-        Square square = this.grid[row][col];
+        Square square = getSquare(row, col);
         square.toggleMineCheck();
 
+        // update mine checked count
+        this.mineCheckedCount += square.isMineChecked() ? 1 : -1;
+        addChangedSquare(this.grid.indexOf(row, col));
+
         return square;
 
     }
@@ -154,10 +388,10 @@ public class Board {
         checkChooseSquareIndex(row, col);
 
         // get square
-        Square square = this.grid[row][col];
+        Square square = getSquare(row, col);
 
         // open square, if square is empty square, open related square
-        int openedCount = openSquareIterator(row, col);
+        long openedCount = openSquareIterator(row, col);
 
         // update opened count
         this.openedMineCount += openedCount;
@@ -168,7 +402,7 @@ public class Board {
         }
 
         // check is win, return immediately
-        if (this.openedMineCount.equals(height * width - mineQty)) {
+        if (this.openedMineCount == this.safeSquareQty) {
             return PlayStatus.WIN;
         }
 
@@ -179,77 +413,74 @@ public class Board {
     /**
      * Open square and related square(s), non recursive version
      *
+     * The related squares are found by the packed cell index and the
+     * neighbour offsets, the index stack is reused, so open the large
+     * empty region does not allocate the object for each square
+     *
      * @param row the square row index
      * @param col the square column index
      *
-     * @return int count of opened square
+     * @return long count of opened square
      *
      * @throws BoardOutOfBoundException
      * @throws SquareCheckedException
      * @throws SquareOpenedException
      */
-    private int openSquareIterator(int row, int col)
+    private long openSquareIterator(int row, int col)
             throws BoardOutOfBoundException,
                    SquareCheckedException,
                    SquareOpenedException {
 
-        int openedCount = 0;
-
-        // check square index
-        checkChooseSquareIndex(row, col);
+        // open the chosen square, throw exception when the chosen square
+        // is opened or checked
+        getSquare(row, col).open();
+        long openedCount = 1;
 
-        // define the stack, store squares that will be open will
-        Stack<int[]> squareStack = new Stack<int[]>();
+        // when square is not empty square, do not open related square
+        long index = this.grid.indexOf(row, col);
+        addChangedSquare(index);
+        if (this.grid.get(index) != CellStore.OPENED)
+            return openedCount;
 
-        // push chosen square for preparing open
-        squareStack.push(new int[] {row, col});
+        // push chosen square for preparing open related square(s)
+        this.openStack.clear();
+        this.openStack.push(index);
 
-        // open square and related square(s)
-        while (!squareStack.empty()) {
+        // open related square(s)
+        while (!this.openStack.isEmpty()) {
 
             // get square
-            int[] index = squareStack.pop();
-            int r = index[0];
-            int c = index[1];
-            Square square = getSquare(r, c);
+            index = this.openStack.pop();
+            int r = (int) (index / this.width);
+            int c = (int) (index - (long) r * this.width);
 
-            // open square
-            try {
-                // open square
-                square.open();
+            // open square follow the direction
+            for (int dir = 0; dir < NEIGHBOR_ROW.length; dir++) {
 
-                // update opened count
-                ++openedCount;
-            } catch (SquareCheckedException e) {
-                // open the chosen square error, throw exception
-                if (openedCount == 0)
-                    throw e;
-            } catch (SquareOpenedException e) {
-                // open the chosen square error, throw exception
-                if (openedCount == 0)
-                    throw e;
-            }
-
-            // when square is empty square, open the related square(s)
-            if (square instanceof EmptySquare) {
+                // skip the neighbour that out of bound
+                int neighborRow = r + NEIGHBOR_ROW[dir];
+                int neighborCol = c + NEIGHBOR_COL[dir];
+                if (!isInBound(neighborRow, neighborCol))
+                    continue;
 
-                // open square follow the direction
-                for (Direction dir : Direction.values()) {
-                    // get neighbour index
-                    int[] neighborIndex = getNeighborIndex(r, c, dir);
+                // generate the neighbour's tile when it has not been read
+                ensureTile(neighborRow, neighborCol);
 
-                    // push square to stack for preparing open square
-                    try {
-                        checkChooseSquareIndex(neighborIndex[0], neighborIndex[1]);
+                long neighborIndex = index + this.neighborOffset[dir];
 
-                        if (!getSquare(neighborIndex[0], neighborIndex[1]).isOpened())
-                            squareStack.push(neighborIndex);
+                // skip the opened or checked square
+                if (!this.grid.isClosed(neighborIndex))
+                    continue;
 
-                    } catch (BoardOutOfBoundException e) {
-                        // pass the exception, do nothing
-                    }
+                // open square
+                byte cell = this.grid.get(neighborIndex);
+                this.grid.setOpened(neighborIndex);
+                addChangedSquare(neighborIndex);
+                ++openedCount;
 
-                }
+                // when square is empty square, open the related square(s)
+                if (cell == 0)
+                    this.openStack.push(neighborIndex);
 
             }
 
@@ -260,82 +491,33 @@ public class Board {
     }
 
     /**
-     * Open square and related square(s), recursive version
+     * Keep the changed square, set the overflow when over the maximum
+     */
+    private void addChangedSquare(long index) {
+
+        if (this.changeOverflowed)
+            return;
+
+        if (this.changedSquares.size() == MAX_CHANGED_SQUARE) {
+            this.changeOverflowed = true;
+            this.changedSquares.clear();
+        } else {
+            this.changedSquares.push(index);
+        }
+
+    }
+
+    /**
+     * Check the square index is in board or not
      *
      * @param row the square row index
      * @param col the square column index
-     * @param count the accumulate variable, store opened square
      *
-     * @return int count of opened square
-     *
-     * @throws BoardOutOfBoundException
-     * @throws SquareCheckedException
-     * @throws SquareOpenedException
+     * @return boolean is index in board or not
      */
-//    private int openSquareIterator(int row, int col, int count)
-//            throws BoardOutOfBoundException,
-//                   SquareCheckedException,
-//                   SquareOpenedException {
-//
-//        try {
-//
-//            // check square index
-//            checkChooseSquareIndex(row, col);
-//
-//            // get square
-//            Square square = this.getSquare(row, col);
-//
-//            int openedCount = count;
-//
-//            // open square
-//            square.open();
-//
-//            // update opened count
-//            ++openedCount;
-//
-//            // when the square is empty square, open related square
-//            if (square instanceof EmptySquare) {
-//                for (Direction dir : Direction.values()) {
-//
-//                    // get neighbour index
-//                    int[] neighbourIndex = this.getNeighborIndex(row, col, dir);
-//
-//                    // open the neighbour empty square
-//                    openedCount = openSquareIterator(
-//                            neighbourIndex[0],
-//                            neighbourIndex[1],
-//                            openedCount
-//                    );
-//
-//                }
-//            }
-//
-//            return openedCount;
-//
-//        } catch (BoardOutOfBoundException e) {
-//            // if square is chosen square, throw exception,
-//            // otherwise, continue open square
-//            if (count == 0)
-//                throw e;
-//
-//            return count;
-//        } catch (SquareCheckedException e) {
-//            // if square is chosen square, throw exception,
-//            // otherwise, continue open square
-//            if (count == 0)
-//                throw e;
-//
-//            return count;
-//        } catch (SquareOpenedException e) {
-//            // if square is chosen square, throw exception,
-//            // otherwise, continue open square
-//            if (count == 0)
-//                throw e;
-//
-//            return count;
-//        }
-//
-//    }
+    private boolean isInBound(int row, int col) {
+        return row >= 0 && row < this.height && col >= 0 && col < this.width;
+    }
 
     /**
      * Check square index, ensure index in valid
@@ -363,154 +545,197 @@ public class Board {
      */
     private void fill() throws SquareWrongValueException {
 
-        // fill mine
-        fillMine(1);
+        // fill mine, the number of mine around is counted when put mine,
+        // so the another squares do not need to check their neighbours
+        fillMine();
 
-        // fill another square
-        for (int r = 0; r < this.height; r++) {
-            for (int c = 0; c < this.width; c++) {
+    }
 
-                // continue if square is mine square
-                if (this.grid[r][c] instanceof MineSquare)
-                    continue;
+    /**
+     * Fill mine square randomly
+     *
+     * Using Floyd's sampling over cell index, each mine is placed by one
+     * random number without retry, so the cost is O(mine quantity) and
+     * does not depend on the mine density
+     */
+    private void fillMine() {
 
-                byte checkAround = countMineAround(r, c);
+        Random rand = new Random(this.seed);
 
-                // if check around have no mine, square is empty square
-                // otherwise, square is number square with value is checkAround
-                if (checkAround == 0)
-                    this.grid[r][c] = new EmptySquare();
-                else
-                    this.grid[r][c] = new NumberSquare(checkAround);
+        long size = this.grid.size();
+        for (long j = size - this.mineQty; j < size; j++) {
+
+            // choose random cell from 0 to j
+            long index = nextIndex(rand, j + 1);
+
+            // if cell is mine, the cell j has not been chosen, set j is mine
+            if (this.grid.isMine(index))
+                index = j;
+
+            // set square is mine square
+            putMine(index);
 
-            }
         }
 
     }
 
     /**
-     * Fill mine square randomly
+     * Generate the tile of square when the board is generated lazily
+     * The numbers of tile depend on the mines of neighbour tiles,
+     * so the mines of tile and neighbour tiles are placed
+     *
+     * @param row the square's row index
+     * @param col the square's column index
      */
-    private void fillMine(int numMine) {
+    private void ensureTile(int row, int col) {
 
-        // terminal if current mines greater than board's mine quantity
-        if (numMine > this.mineQty) return;
+        // the board is generated eagerly
+        if (this.tileState == null)
+            return;
 
-        Random rand = new Random();
+        int tileRow = row >> TILE_SHIFT;
+        int tileCol = col >> TILE_SHIFT;
 
-        // generate random row and column
-        int row = rand.nextInt(this.height - 1);
-        int col = rand.nextInt(this.width - 1);
+        // the tile has been generated
+        if (this.tileState[tileRow * this.tileCols + tileCol] == TILE_READY)
+            return;
 
-        // if square has been opened, fill mine to another square
-        if (this.grid[row][col] instanceof MineSquare) {
-            fillMine(numMine);
-        } else {
-            // set square is mine square
-            this.grid[row][col] = new MineSquare();
-            // fill mine to another
-            fillMine(++numMine);
+        // place mines of the tile and neighbour tiles
+        for (int tr = tileRow - 1; tr <= tileRow + 1; tr++) {
+            for (int tc = tileCol - 1; tc <= tileCol + 1; tc++) {
+
+                if (tr < 0 || tr >= this.tileRows ||
+                        tc < 0 || tc >= this.tileCols)
+                    continue;
+
+                int tile = tr * this.tileCols + tc;
+                if (this.tileState[tile] == TILE_EMPTY) {
+                    fillTileMine(tr, tc);
+                    this.tileState[tile] = TILE_MINED;
+                }
+
+            }
         }
 
+        this.tileState[tileRow * this.tileCols + tileCol] = TILE_READY;
+
     }
 
     /**
-     * Count mine around square
-     * @return number of mine around
+     * Fill mine square randomly in the tile
+     *
+     * The board's mines are divided to the tiles in proportion to the
+     * tile's number of square, the tile's mines are placed by Floyd's
+     * sampling with the random that seeded by board's seed and tile index
+     *
+     * @param tileRow the tile's row index
+     * @param tileCol the tile's column index
      */
-    private byte countMineAround(int row, int col) {
+    private void fillTileMine(int tileRow, int tileCol) {
 
-        byte count = 0;
+        // the tile's range
+        int top = tileRow << TILE_SHIFT;
+        int left = tileCol << TILE_SHIFT;
+        int tileHeight = Math.min(1 << TILE_SHIFT, this.height - top);
+        int tileWidth = Math.min(1 << TILE_SHIFT, this.width - left);
+        long tileSize = (long) tileHeight * tileWidth;
 
-        // check mine around square
-        for (Direction dir : Direction.values()) {
-            Square square = getNeighborSquare(row, col, dir);
+        // number of square that are in the tiles before this tile
+        long before = (long) top * this.width + (long) left * tileHeight;
 
-            if (square != null && square instanceof MineSquare)
-                count += 1;
-        }
+        // the tile's mine quantity
+        long tileMineQty = proportionalMine(before + tileSize) -
+                           proportionalMine(before);
+
+        Random rand = new Random(
+                this.seed + (tileRow * (long) this.tileCols + tileCol) *
+                            0x9E3779B97F4A7C15L);
 
-        return count;
+        for (long j = tileSize - tileMineQty; j < tileSize; j++) {
+
+            // choose random cell from 0 to j
+            long t = nextIndex(rand, j + 1);
+
+            long index = this.grid.indexOf(top + (int) (t / tileWidth),
+                                           left + (int) (t % tileWidth));
+
+            // if cell is mine, the cell j has not been chosen, set j is mine
+            if (this.grid.isMine(index))
+                index = this.grid.indexOf(top + (int) (j / tileWidth),
+                                          left + (int) (j % tileWidth));
+
+            // set square is mine square
+            putMine(index);
+
+        }
 
     }
 
     /**
-     * Get neighbor around square by direction
+     * Get the board's mine quantity in proportion to the number of square
      *
-     * @param row the square row index
-     * @param col the square column index
-     * @param direction the direction from the square that want to get neighbor
+     * @param numSquare the number of square
+     *
+     * @return long floor(mine quantity * number of square / board's size)
+     */
+    private long proportionalMine(long numSquare) {
+        return BigInteger.valueOf(this.mineQty)
+                .multiply(BigInteger.valueOf(numSquare))
+                .divide(BigInteger.valueOf(this.grid.size()))
+                .longValue();
+    }
+
+    /**
+     * Put mine to the cell, increase the number of mine around of the
+     * neighbours that are not mine
      *
-     * @return the neighbor square by direction
+     * @param index the cell index
      */
-    private Square getNeighborSquare(int row, int col, Direction direction) {
+    private void putMine(long index) {
 
-        // get the neighbour index
-        int[] neighbourIndex = getNeighborIndex(row, col, direction);
-        int r = neighbourIndex[0];
-        int c = neighbourIndex[1];
+        this.grid.set(index, CellStore.MINE);
 
-        // check is row and column out of bound
-        // if out of bound, return null
-        // otherwise return grid[row][column]
-        try {
-            // check square's index
-            checkChooseSquareIndex(r, c);
-
-            // when square's index valid, return square
-            return this.grid[r][c];
-        } catch (BoardOutOfBoundException e) {
-            // when square's index invalid, return null
-            return null;
+        int row = (int) (index / this.width);
+        int col = (int) (index - (long) row * this.width);
+
+        // update neighbours, skip the neighbour that out of bound
+        for (int dir = 0; dir < NEIGHBOR_ROW.length; dir++) {
+            if (!isInBound(row + NEIGHBOR_ROW[dir], col + NEIGHBOR_COL[dir]))
+                continue;
+
+            long neighborIndex = index + this.neighborOffset[dir];
+            byte cell = this.grid.get(neighborIndex);
+
+            if ((cell & CellStore.MINE) == 0)
+                this.grid.set(neighborIndex, (byte) (cell + 1));
         }
 
     }
 
     /**
-     * Get neighbor index around square by direction
+     * Get random cell index from 0 (inclusive) to bound (exclusive)
      *
-     * @param row the square row index
-     * @param col the square column index
-     * @param direction the direction from the square that want to get neighbor
+     * @param rand the random number generator
+     * @param bound the upper bound, must be positive
      *
-     * @return int[] the neighbour square index int[row, column]
+     * @return long the random index
      */
-    private int[] getNeighborIndex(int row, int col, Direction direction) {
-
-        int r = row;
-        int c = col;
-
-        // find the square index follow direction
-        switch (direction) {
-            case TOP_LEFT:
-                r--; c--;
-                break;
-            case TOP:
-                r--;
-                break;
-            case TOP_RIGHT:
-                r--; c++;
-                break;
-            case RIGHT:
-                c++;
-                break;
-            case BOTTOM_RIGHT:
-                r++; c++;
-                break;
-            case BOTTOM:
-                r++;
-                break;
-            case BOTTOM_LEFT:
-                r++; c--;
-                break;
-            case LEFT:
-                c--;
-                break;
-            default:
-                break;
-        }
+    private static long nextIndex(Random rand, long bound) {
+
+        // the bound is in int range, use int random
+        if (bound <= Integer.MAX_VALUE)
+            return rand.nextInt((int) bound);
+
+        // reject the value in the last incomplete range to keep uniform
+        long bits;
+        long value;
+        do {
+            bits = rand.nextLong() >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+
+        return value;
 
-        return new int[] {r, c};
     }
 
     /**
@@ -527,22 +752,49 @@ public class Board {
 
         checkChooseSquareIndex(row, col);
 
-        return this.grid[row][col];
+        // generate the square's tile when it has not been read
+        ensureTile(row, col);
+
+        long index = this.grid.indexOf(row, col);
+
+        // create the square view, correspond with the cell
+        if (this.grid.isMine(index))
+            return new MineSquare(this.grid, index);
+
+        byte value = this.grid.getValue(index);
+        if (value == 0)
+            return new EmptySquare(this.grid, index);
+
+        try {
+            return new NumberSquare(this.grid, index, value);
+        } catch (SquareWrongValueException e) {
+            // the cell value is set from 1 to 8 when fill the board
+            throw new IllegalStateException(e);
+        }
 
     }
 
-}
+    /**
+     * Get board's packed cell, the cell bits are described in CellStore
+     * Use for display the board without creating the square instance
+     *
+     * @param row the square's row index
+     * @param col the square's column index
+     *
+     * @return byte the packed cell
+     *
+     * @throws BoardOutOfBoundException
+     */
+    public byte getCell(int row, int col) throws BoardOutOfBoundException {
+
+        checkChooseSquareIndex(row, col);
+
+        // generate the square's tile when it has not been read
+        ensureTile(row, col);
+
+        return this.grid.get(this.grid.indexOf(row, col));
+
+    }
 
-/**
- * The direction, use for find neighbor square
- */
-enum Direction {
-    TOP_LEFT,
-    TOP,
-    TOP_RIGHT,
-    RIGHT,
-    BOTTOM_RIGHT,
-    BOTTOM,
-    BOTTOM_LEFT,
-    LEFT
 }
+
@@ -0,0 +1,10 @@
+package jp.co.cyberagent.components;
+
+/**
+ * The board's generation mode
+ * This enum describe when the board's mines and numbers are generated
+ */
+public enum BoardGeneration {
+    EAGER, // generate all squares when create the board
+    LAZY // generate the squares by tile, when the tile is read first time
+}
@@ -0,0 +1,11 @@
+package jp.co.cyberagent.components;
+
+/**
+ * The board's storage mode
+ * This enum describe where the board's cells are kept
+ */
+public enum BoardStorage {
+    HEAP, // heap storage, all cells are kept in a byte array
+    MAPPED, // memory mapped storage, cells are kept off-heap in a mapped file
+    CHUNKED // chunked storage, cells are kept in chunks allocated on demand
+}
@@ -0,0 +1,153 @@
+package jp.co.cyberagent.components;
+
+/**
+ * The board's cell store
+ * Each cell of the board is packed in one byte:
+ * bit 0-3: number of mine around (0 to 8)
+ * bit 4: mine
+ * bit 5: opened
+ * bit 6: mine checked
+ *
+ * This is the abstract class, when using, please implement this class
+ */
+public abstract class CellStore {
+
+    // cell bits
+    // number of mine around mask
+    public static final byte VALUE_MASK = 0x0F;
+    // mine bit
+    public static final byte MINE = 0x10;
+    // opened bit
+    public static final byte OPENED = 0x20;
+    // mine checked bit
+    public static final byte MINE_CHECKED = 0x40;
+
+    // store size
+    private final int height;
+    private final int width;
+
+    /**
+     * Create the cell store, all cells are empty, closed and unchecked
+     *
+     * @param height store's height
+     * @param width store's width
+     */
+    protected CellStore(int height, int width) {
+        this.height = height;
+        this.width = width;
+    }
+
+    /**
+     * Get store's height
+     *
+     * @return int the number of row
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get store's width
+     *
+     * @return int the number of column
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the number of cell
+     *
+     * @return long height * width
+     */
+    public long size() {
+        return (long) height * width;
+    }
+
+    /**
+     * Get the cell index of square
+     *
+     * @param row the square's row index
+     * @param col the square's column index
+     *
+     * @return long the cell index
+     */
+    public long indexOf(int row, int col) {
+        return (long) row * width + col;
+    }
+
+    /**
+     * Get the packed cell
+     *
+     * @param index the cell index
+     *
+     * @return byte the packed cell
+     */
+    public abstract byte get(long index);
+
+    /**
+     * Set the packed cell
+     *
+     * @param index the cell index
+     * @param cell the packed cell
+     */
+    protected abstract void set(long index, byte cell);
+
+    /**
+     * Release the store's resources (Ex: the mapped file), the store
+     * cannot be used after it is closed
+     * The heap store has nothing to release
+     */
+    public void close() {
+    }
+
+    /**
+     * Check is cell a mine or not
+     */
+    public boolean isMine(long index) {
+        return (get(index) & MINE) != 0;
+    }
+
+    /**
+     * Check is cell opened or not
+     */
+    public boolean isOpened(long index) {
+        return (get(index) & OPENED) != 0;
+    }
+
+    /**
+     * Check is cell mine checked or not
+     */
+    public boolean isMineChecked(long index) {
+        return (get(index) & MINE_CHECKED) != 0;
+    }
+
+    /**
+     * Check is cell closed and not mine checked, so it can be opened
+     */
+    public boolean isClosed(long index) {
+        return (get(index) & (OPENED | MINE_CHECKED)) == 0;
+    }
+
+    /**
+     * Get number of mine around cell
+     */
+    public byte getValue(long index) {
+        return (byte) (get(index) & VALUE_MASK);
+    }
+
+    /**
+     * Set cell opened
+     */
+    protected void setOpened(long index) {
+        set(index, (byte) (get(index) | OPENED));
+    }
+
+    /**
+     * Toggle cell mine checked
+     */
+    protected void toggleMineChecked(long index) {
+        set(index, (byte) (get(index) ^ MINE_CHECKED));
+    }
+
+}
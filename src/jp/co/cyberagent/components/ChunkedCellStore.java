@@ -0,0 +1,137 @@
+package jp.co.cyberagent.components;
+
+/**
+ * Implement sparse cell store by chunks
+ * The cells are divided to chunks of 64 x 64 cells, the chunk is allocated
+ * when a cell in chunk is set first time (mine is placed, number is counted,
+ * square is opened or checked), the cells of not allocated chunk are empty
+ * So the memory scales with the explored area instead of the board's size
+ */
+public class ChunkedCellStore extends CellStore {
+
+    // chunk size, 2^6 (64) x 64 cells
+    public static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    // chunks, null when the chunk is not allocated
+    private byte[][] chunks;
+
+    // number of chunk per row
+    private int chunkCols;
+
+    // number of allocated chunk
+    private int allocatedChunkCount;
+
+    /**
+     * Create the chunked cell store, no chunk is allocated
+     *
+     * @param height store's height
+     * @param width store's width
+     */
+    public ChunkedCellStore(int height, int width) {
+
+        super(height, width);
+
+        int chunkRows = ((height - 1) >> CHUNK_SHIFT) + 1;
+        this.chunkCols = ((width - 1) >> CHUNK_SHIFT) + 1;
+        this.chunks = new byte[chunkRows * this.chunkCols][];
+        this.allocatedChunkCount = 0;
+
+    }
+
+    @Override
+    public byte get(long index) {
+
+        int row = (int) (index / getWidth());
+        int col = (int) (index - (long) row * getWidth());
+
+        byte[] chunk = this.chunks[chunkIndex(row, col)];
+
+        // the cell of not allocated chunk is empty
+        if (chunk == null)
+            return 0;
+
+        return chunk[cellIndex(row, col)];
+
+    }
+
+    @Override
+    protected void set(long index, byte cell) {
+
+        int row = (int) (index / getWidth());
+        int col = (int) (index - (long) row * getWidth());
+
+        int chunkIndex = chunkIndex(row, col);
+        byte[] chunk = this.chunks[chunkIndex];
+
+        // allocate the chunk when set the cell first time
+        if (chunk == null) {
+
+            // the cell is empty, do not need allocate
+            if (cell == 0)
+                return;
+
+            chunk = new byte[1 << (CHUNK_SHIFT * 2)];
+            this.chunks[chunkIndex] = chunk;
+            ++this.allocatedChunkCount;
+
+        }
+
+        chunk[cellIndex(row, col)] = cell;
+
+    }
+
+    /**
+     * Get the number of chunk
+     *
+     * @return int the number of chunk
+     */
+    public int getChunkCount() {
+        return this.chunks.length;
+    }
+
+    /**
+     * Get the number of allocated chunk
+     *
+     * @return int the number of allocated chunk
+     */
+    public int getAllocatedChunkCount() {
+        return this.allocatedChunkCount;
+    }
+
+    /**
+     * Get the allocated memory of cells
+     *
+     * @return long the number of byte
+     */
+    public long getAllocatedBytes() {
+        return (long) this.allocatedChunkCount << (CHUNK_SHIFT * 2);
+    }
+
+    /**
+     * Check is chunk allocated or not
+     *
+     * @param chunkRow the chunk's row index
+     * @param chunkCol the chunk's column index
+     *
+     * @return boolean is chunk allocated or not
+     */
+    public boolean isChunkAllocated(int chunkRow, int chunkCol) {
+        return this.chunks[chunkRow * this.chunkCols + chunkCol] != null;
+    }
+
+    /**
+     * Get chunk index of cell
+     */
+    private int chunkIndex(int row, int col) {
+        return (row >> CHUNK_SHIFT) * this.chunkCols + (col >> CHUNK_SHIFT);
+    }
+
+    /**
+     * Get cell index in chunk
+     */
+    private int cellIndex(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (col & CHUNK_MASK);
+    }
+
+}
@@ -7,9 +7,12 @@ public class EmptySquare extends Square {
 
     /**
      * Create the empty square object
+     *
+     * @param store the cell store that keep square's state
+     * @param index the square's cell index
      */
-    protected EmptySquare() {
-        super();
+    protected EmptySquare(CellStore store, long index) {
+        super(store, index);
     }
 
 }
@@ -0,0 +1,140 @@
+package jp.co.cyberagent.components;
+
+import jp.co.cyberagent.components.exceptions.BoardCreateUnable;
+
+/**
+ * Implement cell store on heap
+ * The mine and number of all cells are stored in one flat byte array,
+ * row by row. The opened and mine checked state are stored in two bitsets,
+ * one bit per cell, so the state can be copied by bulk array copy
+ */
+public class HeapCellStore extends CellStore {
+
+    // the largest array that the virtual machine can allocate
+    public static final long MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    // packed cells, mine and number of mine around
+    private byte[] cells;
+
+    // opened state bitset
+    private long[] opened;
+
+    // mine checked state bitset
+    private long[] mineChecked;
+
+    /**
+     * Create the heap cell store
+     *
+     * @param height store's height
+     * @param width store's width
+     *
+     * @throws BoardCreateUnable when number of cell is over the array limit
+     */
+    public HeapCellStore(int height, int width) throws BoardCreateUnable {
+
+        super(height, width);
+
+        // validate store size
+        if (size() > MAX_SIZE)
+            throw new BoardCreateUnable(
+                    String.format("Board's size must be less than %d " +
+                                  "squares on heap",
+                                  MAX_SIZE)
+            );
+
+        this.cells = new byte[(int) size()];
+        this.opened = new long[(int) ((size() + 63) >>> 6)];
+        this.mineChecked = new long[this.opened.length];
+
+    }
+
+    @Override
+    public byte get(long index) {
+
+        int word = (int) (index >>> 6);
+        long bit = 1l << index;
+        int cell = cells[(int) index];
+
+        // add the state bits
+        if ((opened[word] & bit) != 0)
+            cell |= OPENED;
+        if ((mineChecked[word] & bit) != 0)
+            cell |= MINE_CHECKED;
+
+        return (byte) cell;
+
+    }
+
+    @Override
+    protected void set(long index, byte cell) {
+
+        int word = (int) (index >>> 6);
+        long bit = 1l << index;
+
+        cells[(int) index] = (byte) (cell & (MINE | VALUE_MASK));
+
+        // set the state bits, the bitsets are only written when changed
+        if ((cell & OPENED) != 0)
+            opened[word] |= bit;
+        else if ((opened[word] & bit) != 0)
+            opened[word] &= ~bit;
+
+        if ((cell & MINE_CHECKED) != 0)
+            mineChecked[word] |= bit;
+        else if ((mineChecked[word] & bit) != 0)
+            mineChecked[word] &= ~bit;
+
+    }
+
+    @Override
+    public boolean isOpened(long index) {
+        return (opened[(int) (index >>> 6)] & (1l << index)) != 0;
+    }
+
+    @Override
+    public boolean isMineChecked(long index) {
+        return (mineChecked[(int) (index >>> 6)] & (1l << index)) != 0;
+    }
+
+    @Override
+    public boolean isClosed(long index) {
+        int word = (int) (index >>> 6);
+        long bit = 1l << index;
+
+        // most neighbours in the flood fill are opened, test that bit first
+        return (opened[word] & bit) == 0 && (mineChecked[word] & bit) == 0;
+    }
+
+    @Override
+    public boolean isMine(long index) {
+        return (cells[(int) index] & MINE) != 0;
+    }
+
+    @Override
+    public byte getValue(long index) {
+        return (byte) (cells[(int) index] & VALUE_MASK);
+    }
+
+    @Override
+    protected void setOpened(long index) {
+        opened[(int) (index >>> 6)] |= 1l << index;
+    }
+
+    @Override
+    protected void toggleMineChecked(long index) {
+        mineChecked[(int) (index >>> 6)] ^= 1l << index;
+    }
+
+    /**
+     * Copy the opened and mine checked state to the snapshot store
+     * The snapshot store must have the same size
+     *
+     * @param snapshot the store that receive the state
+     */
+    public void copyStateTo(HeapCellStore snapshot) {
+        System.arraycopy(opened, 0, snapshot.opened, 0, opened.length);
+        System.arraycopy(mineChecked, 0,
+                         snapshot.mineChecked, 0, mineChecked.length);
+    }
+
+}
@@ -0,0 +1,90 @@
+package jp.co.cyberagent.components;
+
+/**
+ * The stack of cell index, keep the index as primitive long
+ * The stack is reused between operations, the array only grows when
+ * the stack is full, so push and pop do not allocate
+ */
+class IndexStack {
+
+    // initial capacity
+    private static final int INITIAL_CAPACITY = 64;
+
+    // stack elements
+    private long[] elements;
+
+    // number of elements
+    private int size;
+
+    /**
+     * Create the empty stack
+     */
+    IndexStack() {
+        this.elements = new long[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Push the index to stack
+     *
+     * @param index the cell index
+     */
+    void push(long index) {
+
+        // when stack is full, double the capacity
+        if (size == elements.length) {
+            long[] grown = new long[elements.length * 2];
+            System.arraycopy(elements, 0, grown, 0, size);
+            elements = grown;
+        }
+
+        elements[size++] = index;
+
+    }
+
+    /**
+     * Pop the index from stack
+     *
+     * @return long the last pushed index
+     */
+    long pop() {
+        return elements[--size];
+    }
+
+    /**
+     * Get the index at position, from the bottom of stack
+     *
+     * @param i the position, from 0 to size - 1
+     *
+     * @return long the index
+     */
+    long get(int i) {
+        return elements[i];
+    }
+
+    /**
+     * Get the number of elements
+     *
+     * @return int number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Check is stack empty or not
+     *
+     * @return boolean is stack empty or not
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all elements, keep the capacity for reuse
+     */
+    void clear() {
+        size = 0;
+    }
+
+}
@@ -0,0 +1,114 @@
+package jp.co.cyberagent.components;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import jp.co.cyberagent.components.exceptions.BoardCreateUnable;
+
+/**
+ * Implement cell store on a memory mapped file
+ * The cells are kept off-heap, the file is mapped by segments because
+ * a mapped buffer is limited to 2GB. The operating system pages in
+ * only the regions that are touched
+ */
+public class MappedCellStore extends CellStore {
+
+    // segment size is 2^30 bytes (1GB)
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1l << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // mapped segments
+    private MappedByteBuffer[] segments;
+
+    // the storage file, null when it is removed
+    private File file;
+
+    /**
+     * Create the mapped cell store, the cells are kept in a temporary file
+     *
+     * @param height store's height
+     * @param width store's width
+     *
+     * @throws BoardCreateUnable when cannot create or map the file
+     */
+    public MappedCellStore(int height, int width) throws BoardCreateUnable {
+
+        super(height, width);
+
+        try {
+            // create the storage file
+            File file = File.createTempFile("minesweeper", ".board");
+
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                FileChannel channel = raf.getChannel();
+
+                // the new file is filled by zero, all cells are empty
+                raf.setLength(size());
+
+                // map the file by segments
+                int numSegment =
+                        (int) ((size() + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+                this.segments = new MappedByteBuffer[numSegment];
+
+                for (int i = 0; i < numSegment; i++) {
+                    long position = (long) i << SEGMENT_SHIFT;
+                    this.segments[i] = channel.map(
+                            FileChannel.MapMode.READ_WRITE,
+                            position,
+                            Math.min(SEGMENT_SIZE, size() - position)
+                    );
+                }
+            } finally {
+                // the mapping is still valid after the channel is closed
+                raf.close();
+
+                // remove the file, when cannot remove now (Ex: the mapped
+                // file on Windows), remove on close or on exit
+                if (file.delete()) {
+                    this.file = null;
+                } else {
+                    this.file = file;
+                    file.deleteOnExit();
+                }
+            }
+        } catch (IOException e) {
+            throw new BoardCreateUnable(
+                    "Cannot create board's storage file: " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Implement close
+     *
+     * Drop the mapped segments, so they are unmapped when they are
+     * collected, then remove the storage file when it is not removed yet
+     */
+    @Override
+    public void close() {
+
+        this.segments = null;
+
+        if (this.file != null && this.file.delete())
+            this.file = null;
+
+    }
+
+    @Override
+    public byte get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)]
+                .get((int) (index & SEGMENT_MASK));
+    }
+
+    @Override
+    protected void set(long index, byte cell) {
+        segments[(int) (index >>> SEGMENT_SHIFT)]
+                .put((int) (index & SEGMENT_MASK), cell);
+    }
+
+}
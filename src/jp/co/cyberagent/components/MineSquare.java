@@ -7,9 +7,12 @@ public class MineSquare extends Square {
 
     /**
      * Create mine square object
+     *
+     * @param store the cell store that keep square's state
+     * @param index the square's cell index
      */
-    protected MineSquare() {
-        super();
+    protected MineSquare(CellStore store, long index) {
+        super(store, index);
     }
 
 }
@@ -12,11 +12,16 @@ public class NumberSquare extends Square {
     /**
      * Create the number square instance
      *
+     * @param store the cell store that keep square's state
+     * @param index the square's cell index
      * @param value the number square value
      *
      * @throws SquareWrongValueException when the value is not from 1 to 8
      */
-    protected NumberSquare(byte value) throws SquareWrongValueException {
+    protected NumberSquare(CellStore store, long index, byte value)
+            throws SquareWrongValueException {
+
+        super(store, index);
 
         if (value < 1 || value > 8)
             throw new SquareWrongValueException("Square's value must be from 1 to 8");
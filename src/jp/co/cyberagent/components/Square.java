@@ -7,20 +7,28 @@ import jp.co.cyberagent.components.exceptions.SquareOpenedException;
  * Created by phucnh on 14/12/31.
  *
  * The game's element: Square
+ * The square is the view of a board's cell, the square's state is kept
+ * in the board's cell store
  * This is the abstract class, when using, please implement this class
  */
 public abstract class Square {
 
-    private boolean isOpened;
-    private boolean isMineChecked;
+    // the cell store that keep square's state
+    private CellStore store;
+
+    // the square's cell index
+    private long index;
 
     /**
-     * When create the square, set is opened and is mine checked is false
+     * Create the square view of cell
+     *
+     * @param store the cell store that keep square's state
+     * @param index the square's cell index
      */
-    public Square() {
+    protected Square(CellStore store, long index) {
 
-        isOpened = false;
-        isMineChecked = false;
+        this.store = store;
+        this.index = index;
 
     }
 
@@ -30,7 +38,7 @@ public abstract class Square {
      * @return boolean the square' open status. True: opened, False: not opened
      */
     public boolean isOpened() {
-        return this.isOpened;
+        return this.store.isOpened(this.index);
     }
 
     /**
@@ -39,7 +47,7 @@ public abstract class Square {
      * @return boolean the mine check status. True: checked, False: unchecked
      */
     public boolean isMineChecked() {
-        return this.isMineChecked;
+        return this.store.isMineChecked(this.index);
     }
 
     /**
@@ -53,7 +61,7 @@ public abstract class Square {
                    SquareCheckedException {
 
         // when square is opened, raise the exception
-        if (this.isOpened)
+        if (this.isOpened())
             throw new SquareOpenedException("Square has been opened, " +
                                             "cannot open square");
 
@@ -63,7 +71,7 @@ public abstract class Square {
                                              "can not open square");
 
         // open the square
-        this.isOpened = true;
+        this.store.setOpened(this.index);
 
     }
 
@@ -75,12 +83,37 @@ public abstract class Square {
     protected void toggleMineCheck() throws SquareOpenedException {
 
         // when square is checked, raise the exception
-        if (this.isOpened)
+        if (this.isOpened())
             throw new SquareOpenedException("Square has been opened, " +
                                             "cannot toggle mine check");
 
         // change square check
-        this.isMineChecked = !isMineChecked;
+        this.store.toggleMineChecked(this.index);
+    }
+
+    /**
+     * Squares are equal when they are view of the same cell
+     *
+     * @param o the object that want to compare
+     *
+     * @return boolean is same cell or not
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) return true;
+        if (!(o instanceof Square)) return false;
+
+        Square square = (Square) o;
+
+        return this.store == square.store && this.index == square.index;
+
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) +
+               (int) (index ^ (index >>> 32));
     }
 
 }
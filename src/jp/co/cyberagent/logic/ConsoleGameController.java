@@ -7,13 +7,17 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardGeneration;
+import jp.co.cyberagent.components.BoardStorage;
 import jp.co.cyberagent.components.exceptions.*;
 import jp.co.cyberagent.components.PlayStatus;
 import jp.co.cyberagent.exceptions.GameException;
-import jp.co.cyberagent.logic.exceptions.ConsoleControllerException;
 import jp.co.cyberagent.ui.ConsoleView;
+import jp.co.cyberagent.ui.GameView;
+import jp.co.cyberagent.ui.RenderMode;
 
 /**
  * Created by phucnh on 15/01/02.
@@ -28,22 +32,114 @@ public class ConsoleGameController extends GameController {
     // playing status
     private PlayStatus playStatus;
 
+    // the packed moves of the last valid chosen square input, one or more
+    // moves in one line, and the mode of the last valid square mode input
+    // (MoveParser)
+    private long[] chosenMoves = new long[1];
+    private int chosenMoveCount;
+    private int chosenMode;
+
+    // the random that seeds each new board
+    private Random random;
+
+    // number of played square move, opened or mine checked, in all games
+    private long playedMoveCount;
+
+    // number of played square move that is not displayed by itself, the
+    // next moves in the same line or the typed inputs are played before
+    // the board is displayed
+    private long coalescedMoveCount;
+
+    // the last played square that is not displayed yet
+    private boolean isDisplayPending;
+    private int pendingRow;
+    private int pendingCol;
+
+    // the board that has more squares is kept in chunks and generated
+    // when the squares are displayed
+    private static final long LARGE_BOARD_SIZE = 1l << 24;
+
     /**
      * Create the console game controller, set the view
      * Initialize the game attributes
      */
     public ConsoleGameController() {
+        this(RenderMode.FULL);
+    }
 
-        super(new ConsoleView(
+    /**
+     * Create the console game controller, set the view with render mode
+     * Initialize the game attributes
+     *
+     * @param renderMode how the board is displayed after each move
+     */
+    public ConsoleGameController(RenderMode renderMode) {
+        this(new ConsoleView(
                 new BufferedReader(new InputStreamReader(System.in)),
-                new BufferedWriter(new OutputStreamWriter(System.out))
+                new BufferedWriter(new OutputStreamWriter(System.out)),
+                renderMode
         ));
+    }
+
+    /**
+     * Create the console game controller with the view
+     * Initialize the game attributes
+     *
+     * @param view the view (Ex: console view with viewport size,
+     *        asynchronous view)
+     */
+    public ConsoleGameController(GameView view) {
+        this(view, new Random());
+    }
+
+    /**
+     * Create the console game controller with the view and the seed
+     * The games that created by same seed have same boards in order, so
+     * the same inputs give same outcome (Ex: replay the move log)
+     * Initialize the game attributes
+     *
+     * @param view the view
+     * @param seed the seed for the boards
+     */
+    public ConsoleGameController(GameView view, long seed) {
+        this(view, new Random(seed));
+    }
+
+    /**
+     * Create the console game controller with the view and the random
+     * that seeds the boards
+     */
+    private ConsoleGameController(GameView view, Random random) {
+
+        super(view);
 
         this.isGameExit = false;
         this.playStatus = PlayStatus.NORMAL;
+        this.random = random;
 
     }
 
+    /**
+     * Get number of played square move, the opened and mine checked
+     * squares in all games, the moves in one line are counted one by one
+     *
+     * @return long number of played square move
+     */
+    public long getPlayedMoveCount() {
+        return playedMoveCount;
+    }
+
+    /**
+     * Get number of coalesced square move, the moves that are played
+     * without displaying the board, the board is displayed once after
+     * the last of them
+     *
+     * @return long number of coalesced square move
+     */
+    public long getCoalescedMoveCount() {
+        return coalescedMoveCount;
+    }
+
     /**
      * Implement the show main menu options
      *
@@ -58,10 +154,12 @@ public class ConsoleGameController extends GameController {
         String mainMenuOpt;
         do {
             mainMenuOpt = this.gameView.mainMenu();
-        } while (!this.validateChosenMainMenuInput(mainMenuOpt));
+        } while (mainMenuOpt != null
+                 && !this.validateChosenMainMenuInput(mainMenuOpt));
 
-        // when user input is "0", or not in options end game
-        if (mainMenuOpt.equals("0")) {
+        // when the input is end, user input is "0", or not in options end
+        // game
+        if (mainMenuOpt == null || mainMenuOpt.equals("0")) {
             this.isGameExit = true;
         } else if (mainMenuOpt.equals("1")) {
 
@@ -84,6 +182,13 @@ public class ConsoleGameController extends GameController {
                 // show setting
                 settings = this.gameView.gameSetting();
 
+                // when the input is end, end game
+                if (settings.containsValue(null)) {
+                    this.isGameExit = true;
+
+                    return;
+                }
+
             } while (!this.validateGameSettingInput(settings));
 
             // set the game settings
@@ -110,65 +215,199 @@ public class ConsoleGameController extends GameController {
     protected void play()
             throws BoardException, SquareException, IOException {
 
-        // show user message for choosing the square and get user's input
+        // show user message for choosing the square and get user's input,
+        // the valid input is parsed to the chosen moves
+        // the coalesced moves are displayed before waiting for the user
         String squareChosen;
         do {
+            if (!this.gameView.hasPendingInput())
+                this.displayCoalescedMoves();
+
             squareChosen = (String) this.gameView.chooseSquare();
 
+            // when the input is end, end game
+            if (squareChosen == null) {
+                this.endInput();
+
+                return;
+            }
+
         } while (!validateChosenSquareInput(squareChosen));
 
-        // when input "0", play end, back to main menu
-        if (squareChosen.equals("0")) {
-            playStatus = PlayStatus.EXIT;
-        }
-        else {
+        // get chosen mode from user for the chosen square without mode,
+        // the coalesced moves are displayed before waiting for the user
+        long move = this.chosenMoves[0];
+        if (MoveParser.getKind(move) == MoveParser.KIND_SQUARE
+                && MoveParser.getMode(move) == MoveParser.MODE_NONE) {
 
-            // get chosen mode from user
             String squareChosenMode;
             do {
+                if (!this.gameView.hasPendingInput())
+                    this.displayCoalescedMoves();
+
                 squareChosenMode = (String) this.gameView.chooseSquareMode();
+
+                // when the input is end, end game
+                if (squareChosenMode == null) {
+                    this.endInput();
+
+                    return;
+                }
+
             } while (!validateChosenSquareModeInput(squareChosenMode));
 
+            this.chosenMoves[0] = MoveParser.withMode(move, this.chosenMode);
+
+        }
+
+        // do the moves in order until the game is ended, the board is
+        // displayed after the last move, when the next input is not typed
+        // yet
+        for (int i = 0; i < this.chosenMoveCount; i++) {
+
+            boolean isLast = i == this.chosenMoveCount - 1;
+            this.playMove(this.chosenMoves[i],
+                          isLast && !this.gameView.hasPendingInput());
+
+            if (this.playStatus != PlayStatus.NORMAL)
+                break;
+
+        }
+
+    }
+
+    /**
+     * Do the parsed move: back to main menu, scroll the board, open or
+     * toggle mine check the chosen square, then display the chosen square
+     *
+     * @param move the packed move (MoveParser)
+     * @param display display the chosen square or not, the chosen square
+     *                that ends the game is always displayed
+     *
+     * @throws BoardException raise when have board's exception
+     * @throws IOException raise when have interact with user error
+     */
+    private void playMove(long move, boolean display)
+            throws BoardException, IOException {
+
+        int kind = MoveParser.getKind(move);
+
+        // when input "0", play end, back to main menu, the coalesced
+        // moves are displayed before leaving
+        if (kind == MoveParser.KIND_EXIT) {
+            this.displayCoalescedMoves();
+            playStatus = PlayStatus.EXIT;
+        }
+        else if (kind == MoveParser.KIND_PAN) {
+
+            // scroll the board, the coalesced moves are displayed too
+            this.isDisplayPending = false;
+            char pan = MoveParser.getPan(move);
+            this.gameView.panBoard(
+                    getBoard(),
+                    pan == '^' ? -1 : pan == 'v' ? 1 : 0,
+                    pan == '<' ? -1 : pan == '>' ? 1 : 0
+            );
+
+        }
+        else {
+
             // get row and column index
-            int squareChosenCol = getNumberForChar(squareChosen.charAt(0));
-            int squareChosenRow = Integer.valueOf(squareChosen.substring(1));
+            int squareChosenRow = MoveParser.getRow(move);
+            int squareChosenCol = MoveParser.getColumn(move);
+            this.playedMoveCount++;
 
             // open or toggle mine square checked
-            if (squareChosenMode.equals("x")) {
+            if (MoveParser.getMode(move) == MoveParser.MODE_CHECK) {
 
                 try {
-                    // toggle the square
-                    this.getBoard().toggleMineCheckSquare(squareChosenRow,
-                                                          squareChosenCol);
+                    // toggle the square, the board is not displayed while
+                    // changing
+                    synchronized (this.getBoard()) {
+                        this.getBoard().toggleMineCheckSquare(
+                                squareChosenRow,
+                                squareChosenCol
+                        );
+                    }
                 } catch (GameException e) {
                     this.gameView.showMessage(e.getMessage());
                 }
 
-            } else if (squareChosenMode.equals("o")) {
+            } else if (MoveParser.getMode(move) == MoveParser.MODE_OPEN) {
 
                 try {
-                    // open the square
-                    this.playStatus = this.getBoard().openSquare(
-                            squareChosenRow,
-                            squareChosenCol
-                    );
+                    // open the square, the board is not displayed while
+                    // changing
+                    synchronized (this.getBoard()) {
+                        this.playStatus = this.getBoard().openSquare(
+                                squareChosenRow,
+                                squareChosenCol
+                        );
+                    }
                 } catch (GameException e) {
                     this.gameView.showMessage(e.getMessage());
                 }
 
             }
 
-            // display the chosen square
-            this.gameView.displayChosenSquare(
-                    getBoard(),
-                    squareChosenRow,
-                    squareChosenCol
-            );
+            // display the chosen square, or keep it for display after
+            // the coalesced moves
+            if (display || this.playStatus != PlayStatus.NORMAL) {
+                this.isDisplayPending = false;
+                this.gameView.displayChosenSquare(
+                        getBoard(),
+                        squareChosenRow,
+                        squareChosenCol
+                );
+            } else {
+                this.coalescedMoveCount++;
+                this.isDisplayPending = true;
+                this.pendingRow = squareChosenRow;
+                this.pendingCol = squareChosenCol;
+            }
 
         }
 
     }
 
+    /**
+     * End the game and exit when the user input is end (Ex: the piped
+     * inputs or the move log run out), the coalesced moves are displayed
+     * first
+     *
+     * @throws BoardException raise when have board's exception
+     * @throws IOException raise when have interact with user error
+     */
+    private void endInput() throws BoardException, IOException {
+
+        this.displayCoalescedMoves();
+
+        this.playStatus = PlayStatus.EXIT;
+        this.isGameExit = true;
+
+    }
+
+    /**
+     * Display the last coalesced move, when the typed inputs are played
+     * (there is no pending input) or the game is left
+     *
+     * @throws BoardException raise when have board's exception
+     * @throws IOException raise when have interact with user error
+     */
+    private void displayCoalescedMoves() throws BoardException, IOException {
+
+        if (!this.isDisplayPending)
+            return;
+
+        this.isDisplayPending = false;
+        this.gameView.displayChosenSquare(
+                getBoard(),
+                this.pendingRow,
+                this.pendingCol
+        );
+
+    }
+
     /**
      * Implement the is game end
      *
@@ -224,8 +463,7 @@ public class ConsoleGameController extends GameController {
     @Override
     protected void createNewGame(Map<String, String> settings)
             throws SquareWrongValueException,
-                   BoardCreateUnable,
-                   ConsoleControllerException {
+                   BoardCreateUnable {
 
         // get settings
         int boardWidth = new Integer(settings.get(SETTING_WIDTH));
@@ -233,19 +471,37 @@ public class ConsoleGameController extends GameController {
         long boardMineQuantity =
                 new Long(settings.get(MINE_QUANTITY));
 
-        if (boardWidth > 26)
-            throw new ConsoleControllerException(
-                    "In console mode, board width " +
-                    "must less than or equal 26 columns"
-            );
-
-        // create new board
-        this.setBoard(new Board(boardHeight, boardWidth, boardMineQuantity));
+        // the new game is playing
+        this.playStatus = PlayStatus.NORMAL;
+        this.isDisplayPending = false;
+
+        // create new board, the large board is generated lazily
+        Board oldBoard = this.getBoard();
+        if ((long) boardHeight * boardWidth > LARGE_BOARD_SIZE)
+            this.setBoard(new Board(boardHeight,
+                                    boardWidth,
+                                    boardMineQuantity,
+                                    BoardStorage.CHUNKED,
+                                    BoardGeneration.LAZY,
+                                    this.random.nextLong()));
+        else
+            this.setBoard(new Board(boardHeight,
+                                    boardWidth,
+                                    boardMineQuantity,
+                                    BoardStorage.HEAP,
+                                    this.random.nextLong()));
+
+        // release the replaced board's storage
+        if (oldBoard != null)
+            oldBoard.close();
 
     }
 
     /**
-     * Validate the chosen square input
+     * Validate the chosen square input, keep the parsed moves of the valid
+     * input as the chosen moves
+     * The input is one move (Ex: b12, o b12, 0, <), or the moves with the
+     * square mode separated by ';' (Ex: o b12;x c3;>)
      *
      * @throws IOException
      */
@@ -260,13 +516,19 @@ public class ConsoleGameController extends GameController {
         }
 
         // ensure user input is valid pattern
-        if (!input.matches("0$|^[a-z]\\d+$")) {
+        int count = MoveParser.countMoves(input);
+        if (this.chosenMoves.length < count)
+            this.chosenMoves = new long[count];
+        count = MoveParser.parseLine(input, this.chosenMoves);
+        if (count < 0) {
             this.gameView.showMessage("Please, input 0 or valid square " +
                                       "choose pattern (Ex: a1, b12)");
 
             return false;
         }
 
+        this.chosenMoveCount = count;
+
         return true;
 
     }
@@ -302,7 +564,8 @@ public class ConsoleGameController extends GameController {
     }
 
     /**
-     * Validate the chosen square mode input
+     * Validate the chosen square mode input, keep the parsed mode of the
+     * valid input as the chosen mode
      *
      * @throws IOException
      */
@@ -319,12 +582,15 @@ public class ConsoleGameController extends GameController {
         }
 
         // ensure user input is valid pattern
-        if (!input.matches("o$|x$")) {
+        int mode = MoveParser.parseMode(input);
+        if (mode == MoveParser.MODE_NONE) {
             this.gameView.showMessage("Please, input o or x value");
 
             return false;
         }
 
+        this.chosenMode = mode;
+
         return true;
 
     }
@@ -384,16 +650,4 @@ public class ConsoleGameController extends GameController {
 
     }
 
-    /**
-     * When user input, convert the number to integer
-     *
-     * @param c the user's input first character
-     *
-     * @return integer the number that convert from input
-     */
-    private int getNumberForChar(char c) {
-        // convert lower alphabet number to integer (a is 0, b is 1 ...)
-        return (int) c - 97;
-    }
-
 }
@@ -0,0 +1,328 @@
+package jp.co.cyberagent.logic;
+
+/**
+ * Parse the console move input without regular expression and without
+ * allocation. The move is packed in one long:
+ *   bits 0-27 column, bits 28-55 row, bits 56-57 mode, bits 58-59 kind
+ *
+ * The square is the column index (a to z, aa ...) then the row number
+ * (Ex: b12). The larger index than the maximum index is saturated to
+ * the maximum index, then it is out of board
+ *
+ * The move can have the square mode in front of the square (Ex: o b12,
+ * x c3), the moves in one line are separated by ';'
+ * (Ex: o b12;x c3;>)
+ */
+public class MoveParser {
+
+    // the wrong input
+    public static final long INVALID = -1l;
+
+    // move kind: choose square, back to main menu ("0"), scroll the board
+    public static final int KIND_SQUARE = 0;
+    public static final int KIND_EXIT = 1;
+    public static final int KIND_PAN = 2;
+
+    // square mode: not chosen, open ("o"), toggle mine check ("x")
+    public static final int MODE_NONE = 0;
+    public static final int MODE_OPEN = 1;
+    public static final int MODE_CHECK = 2;
+
+    // the maximum row and column index
+    public static final int MAX_INDEX = (1 << 28) - 1;
+
+    // the moves separator in one line
+    public static final char MOVE_SEPARATOR = ';';
+
+    // the packed fields' position
+    private static final int ROW_SHIFT = 28;
+    private static final int MODE_SHIFT = 56;
+    private static final int KIND_SHIFT = 58;
+
+    private MoveParser() {}
+
+    /**
+     * Parse the chosen square input: the square, "0", or the scroll
+     * (<, >, ^, v)
+     *
+     * @param input the user's input
+     *
+     * @return long the packed move, INVALID when the input is wrong
+     */
+    public static long parseSquare(CharSequence input) {
+        return parseSquare(input, 0, input.length());
+    }
+
+    /**
+     * Parse the chosen square input from start to end
+     *
+     * @param input the user's input
+     * @param start the first character
+     * @param end the character after the last character
+     *
+     * @return long the packed move, INVALID when the input is wrong
+     */
+    public static long parseSquare(CharSequence input, int start, int end) {
+
+        if (start >= end)
+            return INVALID;
+
+        // back to main menu, scroll the board
+        char first = input.charAt(start);
+        if (end - start == 1) {
+            if (first == '0')
+                return (long) KIND_EXIT << KIND_SHIFT;
+            if (first == '<' || first == '>' || first == '^' || first == 'v')
+                return (long) KIND_PAN << KIND_SHIFT | first;
+        }
+
+        // the column index, bijective base 26 (a is 0, z is 25, aa is 26)
+        int i = start;
+        long col = 0;
+        for (; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch < 'a' || ch > 'z')
+                break;
+            col = Math.min(col * 26 + (ch - 'a' + 1), MAX_INDEX + 1l);
+        }
+
+        // at least one letter and one digit
+        if (i == start || i == end)
+            return INVALID;
+
+        // the row number
+        long row = 0;
+        for (; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch < '0' || ch > '9')
+                return INVALID;
+            row = Math.min(row * 10 + (ch - '0'), MAX_INDEX);
+        }
+
+        return square((int) row, (int) col - 1, MODE_NONE);
+
+    }
+
+    /**
+     * Get the maximum number of move in the line, the moves array for
+     * parse line must have this length
+     *
+     * @param input the user's input
+     *
+     * @return int the maximum number of move
+     */
+    public static int countMoves(CharSequence input) {
+
+        int count = 1;
+        for (int i = 0; i < input.length(); i++)
+            if (input.charAt(i) == MOVE_SEPARATOR)
+                count++;
+
+        return count;
+
+    }
+
+    /**
+     * Parse the moves in one line, separated by ';'
+     * The line that has more than one move must have the square mode for
+     * each square (Ex: o b12;x c3), the empty moves are skipped
+     *
+     * @param input the user's input
+     * @param moves the parsed moves, the length is at least count moves
+     *
+     * @return int number of parsed move, -1 when one of moves is wrong
+     */
+    public static int parseLine(CharSequence input, long[] moves) {
+
+        int count = 0;
+        int start = 0;
+        int length = input.length();
+
+        while (start <= length) {
+
+            // the move is until the separator or the end of line
+            int end = start;
+            while (end < length && input.charAt(end) != MOVE_SEPARATOR)
+                end++;
+
+            // skip the empty move
+            if (!isBlank(input, start, end)) {
+
+                long move = parseMove(input, start, end);
+                if (move == INVALID)
+                    return -1;
+
+                moves[count++] = move;
+
+            }
+
+            start = end + 1;
+
+        }
+
+        // the square without mode is valid when it is the only move
+        if (count == 0)
+            return -1;
+        if (count > 1)
+            for (int i = 0; i < count; i++)
+                if (getKind(moves[i]) == KIND_SQUARE
+                        && getMode(moves[i]) == MODE_NONE)
+                    return -1;
+
+        return count;
+
+    }
+
+    /**
+     * Parse one move from start to end: the square with or without the
+     * square mode (Ex: b12, o b12), "0", or the scroll
+     * The white space around the move is skipped
+     *
+     * @param input the user's input
+     * @param start the first character
+     * @param end the character after the last character
+     *
+     * @return long the packed move, INVALID when the move is wrong
+     */
+    public static long parseMove(CharSequence input, int start, int end) {
+
+        // skip the white space
+        while (start < end && input.charAt(start) == ' ')
+            start++;
+        while (end > start && input.charAt(end - 1) == ' ')
+            end--;
+
+        // the square mode, then white space, then the square
+        if (end - start > 2 && input.charAt(start + 1) == ' ') {
+
+            int mode = parseMode(input.charAt(start));
+            if (mode == MODE_NONE)
+                return INVALID;
+
+            int squareStart = start + 1;
+            while (input.charAt(squareStart) == ' ')
+                squareStart++;
+
+            long move = parseSquare(input, squareStart, end);
+            if (move == INVALID || getKind(move) != KIND_SQUARE)
+                return INVALID;
+
+            return withMode(move, mode);
+
+        }
+
+        return parseSquare(input, start, end);
+
+    }
+
+    /**
+     * Check is the input from start to end white space only or not
+     */
+    private static boolean isBlank(CharSequence input, int start, int end) {
+
+        for (int i = start; i < end; i++)
+            if (input.charAt(i) != ' ')
+                return false;
+
+        return true;
+
+    }
+
+    /**
+     * Parse the square mode input: "o" or "x"
+     *
+     * @param input the user's input
+     *
+     * @return int MODE_OPEN, MODE_CHECK, or MODE_NONE when the input is
+     *         wrong
+     */
+    public static int parseMode(CharSequence input) {
+
+        if (input.length() != 1)
+            return MODE_NONE;
+
+        return parseMode(input.charAt(0));
+
+    }
+
+    /**
+     * Parse the square mode character: 'o' or 'x'
+     *
+     * @param ch the mode character
+     *
+     * @return int MODE_OPEN, MODE_CHECK, or MODE_NONE when it is wrong
+     */
+    public static int parseMode(char ch) {
+
+        if (ch == 'o')
+            return MODE_OPEN;
+        if (ch == 'x')
+            return MODE_CHECK;
+
+        return MODE_NONE;
+
+    }
+
+    /**
+     * Pack the chosen square
+     *
+     * @param row the row index, from 0 to MAX_INDEX
+     * @param col the column index, from 0 to MAX_INDEX
+     * @param mode the square mode
+     *
+     * @return long the packed move
+     */
+    public static long square(int row, int col, int mode) {
+        return (long) mode << MODE_SHIFT
+               | (long) row << ROW_SHIFT
+               | col;
+    }
+
+    /**
+     * Set the square mode of the move
+     *
+     * @param move the packed move
+     * @param mode the square mode
+     *
+     * @return long the packed move with the mode
+     */
+    public static long withMode(long move, int mode) {
+        return move & ~(3l << MODE_SHIFT) | (long) mode << MODE_SHIFT;
+    }
+
+    /**
+     * Get the move kind
+     */
+    public static int getKind(long move) {
+        return (int) (move >>> KIND_SHIFT) & 3;
+    }
+
+    /**
+     * Get the square mode
+     */
+    public static int getMode(long move) {
+        return (int) (move >>> MODE_SHIFT) & 3;
+    }
+
+    /**
+     * Get the row index of the chosen square
+     */
+    public static int getRow(long move) {
+        return (int) (move >>> ROW_SHIFT) & MAX_INDEX;
+    }
+
+    /**
+     * Get the column index of the chosen square
+     */
+    public static int getColumn(long move) {
+        return (int) move & MAX_INDEX;
+    }
+
+    /**
+     * Get the scroll character: <, >, ^, v
+     */
+    public static char getPan(long move) {
+        return (char) (move & 0xFFFF);
+    }
+
+}
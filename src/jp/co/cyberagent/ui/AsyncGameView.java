@@ -0,0 +1,501 @@
+package jp.co.cyberagent.ui;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.exceptions.BoardException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implement game view that displays the board on a renderer thread
+ *
+ * Display board and display chosen square publish the frame and return
+ * immediately, the renderer thread displays the latest published frame
+ * by the wrapped view. When the frames are published faster than they
+ * are displayed, the older frames are skipped (latest wins), the chosen
+ * squares of the skipped frames are kept in the board's changed squares
+ *
+ * The frame is displayed while holding the board's monitor, so the
+ * controller must change the board while holding it too
+ *
+ * The frame rate can be limited, the frames that are published within
+ * the frame interval are coalesced to the latest one. With the final
+ * frame only rate, the frame is displayed only when it is waited for
+ *
+ * The messages and the input requests are done by the wrapped view on
+ * the caller thread. The main menu, game setting, win and lose wait for
+ * the published frames first, so they are shown after the board. The
+ * waited frame is displayed immediately, without the frame interval
+ *
+ * The wrapped view that clears below the board after each frame (the
+ * console view in diff mode) would clear the prompt that is written
+ * before the frame, so the prompts can wait for the published frames
+ * too (prompt after frame)
+ */
+public class AsyncGameView extends GameView {
+
+    // frame rate that displays the final frame only, the frame before
+    // the messages, the menu and the end of game
+    public static final int FINAL_FRAME_ONLY = 0;
+
+    // the wrapped view
+    private GameView view;
+
+    // the renderer thread
+    private Thread renderer;
+
+    // the latest published frame, null when there is no frame
+    // full is true when the whole board must be displayed
+    private Board pendingBoard;
+    private boolean pendingFull;
+    private int pendingRow;
+    private int pendingCol;
+
+    // is the renderer displaying the frame or not
+    private boolean rendering;
+
+    // minimum time between two frames in nanosecond, 0 for no limit
+    private long frameInterval;
+
+    // the time that the last frame is displayed
+    private long lastFrameTime;
+
+    // do the prompts wait for the published frames or not
+    private boolean promptAfterFrame;
+
+    // number of caller that is waiting for the frames, the pending frame
+    // is displayed immediately when there is a waiting caller
+    private int waitingCount;
+
+    // number of published and displayed frame
+    private long publishedFrameCount;
+    private long renderedFrameCount;
+
+    // the error of the last displayed frame, thrown to the caller
+    private Exception renderError;
+
+    /**
+     * Create the asynchronous view without frame rate limit, start the
+     * renderer thread
+     *
+     * @param view the view that displays the board
+     */
+    public AsyncGameView(GameView view) {
+        this(view, 0l);
+    }
+
+    /**
+     * Create the asynchronous view, start the renderer thread
+     *
+     * @param view the view that displays the board
+     * @param frameRate maximum number of frame per second,
+     *                  FINAL_FRAME_ONLY for display the waited frame only
+     */
+    public AsyncGameView(GameView view, int frameRate) {
+        this(view, frameRate > FINAL_FRAME_ONLY
+                   ? TimeUnit.SECONDS.toNanos(1) / frameRate
+                   : Long.MAX_VALUE);
+    }
+
+    /**
+     * Create the asynchronous view, start the renderer thread
+     *
+     * @param view the view that displays the board
+     * @param frameInterval minimum time between two frames in nanosecond
+     */
+    private AsyncGameView(GameView view, long frameInterval) {
+
+        this.view = view;
+        this.frameInterval = frameInterval;
+        this.lastFrameTime = System.nanoTime();
+
+        // the renderer does not keep the application running
+        this.renderer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                render();
+            }
+        }, "board-renderer");
+        this.renderer.setDaemon(true);
+        this.renderer.start();
+
+    }
+
+    /**
+     * Set the prompts (choose square, choose square mode) wait for the
+     * published frames or not
+     * Set it when the wrapped view clears below the board after each
+     * frame (Ex: the console view in diff mode), otherwise the frame can
+     * be displayed after the prompt and clear it
+     *
+     * @param promptAfterFrame the prompts wait for the frames or not
+     */
+    public void setPromptAfterFrame(boolean promptAfterFrame) {
+        this.promptAfterFrame = promptAfterFrame;
+    }
+
+    /**
+     * Get number of published frame
+     *
+     * @return long the number of published frame
+     */
+    public synchronized long getPublishedFrameCount() {
+        return publishedFrameCount;
+    }
+
+    /**
+     * Get number of displayed frame, the other published frames are
+     * skipped by the latest frame
+     *
+     * @return long the number of displayed frame
+     */
+    public synchronized long getRenderedFrameCount() {
+        return renderedFrameCount;
+    }
+
+    /**
+     * Implement display board
+     *
+     * Publish the whole board frame to the renderer thread
+     *
+     * @param board the game's board
+     *
+     * @throws IOException raise when display the last frame error
+     * @throws BoardException raise when display the last frame error
+     */
+    @Override
+    public void displayBoard(Board board)
+            throws IOException, BoardException {
+        publish(board, true, 0, 0);
+    }
+
+    /**
+     * Implement display chosen square
+     *
+     * Publish the chosen square frame to the renderer thread
+     *
+     * @param board the board that want to display the chosen square
+     * @param chosenRow the square's row index
+     * @param chosenCol the square's column index
+     *
+     * @throws IOException raise when display the last frame error
+     * @throws BoardException raise when display the last frame error
+     */
+    @Override
+    public void displayChosenSquare(Board board, int chosenRow, int chosenCol)
+            throws IOException, BoardException {
+        publish(board, false, chosenRow, chosenCol);
+    }
+
+    /**
+     * Implement pan board
+     *
+     * Wait for the published frames, then scroll the board on the
+     * caller thread
+     *
+     * @param board the game's board
+     * @param rowDirection -1 for up, 1 for down, 0 for not move
+     * @param colDirection -1 for left, 1 for right, 0 for not move
+     *
+     * @throws IOException raise when display the board error
+     * @throws BoardException raise when display the board error
+     */
+    @Override
+    public void panBoard(Board board, int rowDirection, int colDirection)
+            throws IOException, BoardException {
+
+        awaitFrames();
+
+        synchronized (board) {
+            view.panBoard(board, rowDirection, colDirection);
+        }
+
+    }
+
+    /**
+     * Implement main menu
+     *
+     * Wait for the published frames, then display the main menu
+     */
+    @Override
+    public String mainMenu() throws IOException {
+        awaitFramesQuietly();
+        return view.mainMenu();
+    }
+
+    /**
+     * Implement game setting
+     *
+     * Wait for the published frames, then get the game's setting
+     */
+    @Override
+    public Map<String, String> gameSetting() throws IOException {
+        awaitFramesQuietly();
+        return view.gameSetting();
+    }
+
+    /**
+     * Implement on win
+     *
+     * Wait for the published frames, then display the win message
+     */
+    @Override
+    public void onWin() {
+        awaitFramesQuietly();
+        view.onWin();
+    }
+
+    /**
+     * Implement on lose
+     *
+     * Wait for the published frames, then display the lose message
+     */
+    @Override
+    public void onLose() {
+        awaitFramesQuietly();
+        view.onLose();
+    }
+
+    /**
+     * Implement choose square
+     *
+     * Get the chosen square without waiting for the published frames,
+     * when prompt after frame is set, wait for them first
+     */
+    @Override
+    public Object chooseSquare() throws IOException {
+        if (promptAfterFrame)
+            awaitFramesQuietly();
+        return view.chooseSquare();
+    }
+
+    /**
+     * Implement show message
+     *
+     * Display the message without waiting for the published frames
+     */
+    @Override
+    public void showMessage(String message, String type) throws IOException {
+        view.showMessage(message, type);
+    }
+
+    /**
+     * Implement choose square mode
+     *
+     * Get the chosen mode without waiting for the published frames,
+     * when prompt after frame is set, wait for them first
+     */
+    @Override
+    public Object chooseSquareMode() throws IOException {
+        if (promptAfterFrame)
+            awaitFramesQuietly();
+        return view.chooseSquareMode();
+    }
+
+    /**
+     * Implement has pending input
+     *
+     * Check the wrapped view's input
+     *
+     * @return boolean is the next input typed or not
+     *
+     * @throws IOException raise when have interact with user error
+     */
+    @Override
+    public boolean hasPendingInput() throws IOException {
+        return view.hasPendingInput();
+    }
+
+    /**
+     * Wait until the published frames are displayed
+     *
+     * @throws IOException raise when display the frame error, or the
+     *         waiting is interrupted
+     * @throws BoardException raise when display the frame error
+     */
+    public void awaitFrames() throws IOException, BoardException {
+
+        synchronized (this) {
+
+            try {
+                waitFrames();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Waiting for the board is interrupted");
+            }
+
+            throwRenderError();
+
+        }
+
+    }
+
+    /**
+     * Stop the renderer thread, the published frames are displayed first
+     *
+     * @throws IOException raise when display the frame error
+     * @throws BoardException raise when display the frame error
+     */
+    public void close() throws IOException, BoardException {
+        try {
+            awaitFrames();
+        } finally {
+            renderer.interrupt();
+        }
+    }
+
+    /**
+     * Wait until the published frames are displayed, the display error
+     * is kept for the next display
+     */
+    private void awaitFramesQuietly() {
+
+        synchronized (this) {
+
+            try {
+                waitFrames();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+        }
+
+    }
+
+    /**
+     * Wait until the published frames are displayed, the pending frame
+     * is displayed without waiting for the frame interval
+     * The caller must hold the view's monitor
+     */
+    private void waitFrames() throws InterruptedException {
+
+        waitingCount++;
+        notifyAll();
+
+        try {
+            while (pendingBoard != null || rendering)
+                wait();
+        } finally {
+            waitingCount--;
+        }
+
+    }
+
+    /**
+     * Publish the frame, the frame replaces the frame that is not
+     * displayed yet
+     */
+    private synchronized void publish(Board board,
+                                      boolean full,
+                                      int row,
+                                      int col)
+            throws IOException, BoardException {
+
+        throwRenderError();
+
+        // the whole board is displayed when one of the skipped frames
+        // needs it, or the board is changed
+        if (pendingBoard == null)
+            pendingFull = full;
+        else
+            pendingFull = pendingFull || full || pendingBoard != board;
+
+        pendingBoard = board;
+        pendingRow = row;
+        pendingCol = col;
+        publishedFrameCount++;
+
+        notifyAll();
+
+    }
+
+    /**
+     * Throw the error of the last displayed frame, then clear it
+     */
+    private void throwRenderError() throws IOException, BoardException {
+
+        Exception error = renderError;
+        renderError = null;
+
+        if (error instanceof BoardException)
+            throw (BoardException) error;
+        if (error instanceof IOException)
+            throw (IOException) error;
+        if (error != null)
+            throw new IOException(error.getMessage(), error);
+
+    }
+
+    /**
+     * The renderer thread, display the latest published frame until
+     * the thread is interrupted
+     */
+    private void render() {
+
+        while (true) {
+
+            Board board;
+            boolean full;
+            int row;
+            int col;
+
+            // take the latest frame, when the frame interval is passed or
+            // the frame is waited for
+            synchronized (this) {
+
+                try {
+                    while (true) {
+
+                        if (pendingBoard == null) {
+                            wait();
+                            continue;
+                        }
+
+                        long remain = frameInterval
+                                      - (System.nanoTime() - lastFrameTime);
+                        if (waitingCount > 0 || remain <= 0)
+                            break;
+
+                        TimeUnit.NANOSECONDS.timedWait(this, remain);
+
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                board = pendingBoard;
+                full = pendingFull;
+                row = pendingRow;
+                col = pendingCol;
+                pendingBoard = null;
+                rendering = true;
+
+            }
+
+            // display the frame, the board is not changed while displaying
+            try {
+                synchronized (board) {
+                    if (full)
+                        view.displayBoard(board);
+                    else
+                        view.displayChosenSquare(board, row, col);
+                }
+            } catch (Exception e) {
+                synchronized (this) {
+                    renderError = e;
+                }
+            } finally {
+                synchronized (this) {
+                    rendering = false;
+                    renderedFrameCount++;
+                    lastFrameTime = System.nanoTime();
+                    notifyAll();
+                }
+            }
+
+        }
+
+    }
+
+}
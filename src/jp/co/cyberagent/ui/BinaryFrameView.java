@@ -0,0 +1,463 @@
+package jp.co.cyberagent.ui;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.CellStore;
+import jp.co.cyberagent.components.exceptions.BoardException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Implement game view that writes the board as binary frames
+ *
+ * The board is encoded into a direct byte buffer and written to the
+ * channel (file, socket, pipe), so the remote viewers and recorders read
+ * the game state without parsing the console text. The user interaction
+ * and the display are done by the wrapped view
+ *
+ * Frame format, big-endian:
+ *   byte type, long sequence, int rows, int columns, then the payload
+ *   FRAME_BOARD: the square codes row by row, 2 squares per byte (the
+ *                first square in the high 4 bits)
+ *   FRAME_CHANGES: int count, then count of (int row, int column,
+ *                  byte square code)
+ *   FRAME_WIN, FRAME_LOSE: no payload
+ *
+ * Square code: 0 to 8 opened square with number of mine around,
+ * CODE_CLOSED, CODE_MINE_CHECKED, CODE_MINE (opened mine). The mines of
+ * the closed squares are not written
+ *
+ * The board that has more squares than MAX_BOARD_SQUARES is not
+ * recorded, its whole board frame would generate every tile of the lazy
+ * board and need the frame of half a byte per square. The user is told
+ * by the warning message, the game is played without the frames
+ */
+public class BinaryFrameView extends GameView {
+
+    // frame type
+    public static final byte FRAME_BOARD = 1;
+    public static final byte FRAME_CHANGES = 2;
+    public static final byte FRAME_WIN = 3;
+    public static final byte FRAME_LOSE = 4;
+
+    // frame header length: type, sequence, rows, columns
+    public static final int HEADER_LENGTH = 1 + 8 + 4 + 4;
+
+    // square code, the opened square's code is its number
+    public static final byte CODE_CLOSED = 9;
+    public static final byte CODE_MINE_CHECKED = 10;
+    public static final byte CODE_MINE = 11;
+
+    // the largest recorded board, the whole board frame is 8 MB
+    public static final long MAX_BOARD_SQUARES = 1l << 24;
+
+    // the changed square length: row, column, code
+    private static final int CHANGE_LENGTH = 4 + 4 + 1;
+
+    // the frame buffer size, the larger frame is written by parts
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // the code of each packed cell state, the index is the packed cell
+    // (number, mine, opened, mine checked bits)
+    private static final int CODE_COUNT = 128;
+    private static final byte[] CODE = new byte[CODE_COUNT];
+
+    static {
+
+        // pre-encode the code of each cell state
+        for (int cell = 0; cell < CODE_COUNT; cell++) {
+
+            if ((cell & CellStore.OPENED) == 0)
+                CODE[cell] = (cell & CellStore.MINE_CHECKED) != 0
+                             ? CODE_MINE_CHECKED
+                             : CODE_CLOSED;
+            else if ((cell & CellStore.MINE) != 0)
+                CODE[cell] = CODE_MINE;
+            else
+                CODE[cell] = (byte) (cell & CellStore.VALUE_MASK);
+
+        }
+
+    }
+
+    // the wrapped view
+    private GameView view;
+
+    // the channel that receives the frames
+    private WritableByteChannel channel;
+
+    // the frame buffer, reused for each frame
+    private ByteBuffer buffer;
+
+    // the last written board, the changes are written for this board only
+    private Board writtenBoard;
+
+    // the last displayed board, and the board that is too large to record
+    private Board currentBoard;
+    private Board skippedBoard;
+
+    // the sorted changed squares, reused for each frame
+    private long[] changes;
+
+    // number of written frame
+    private long sequence;
+
+    // the error of writing the win or lose frame, thrown by the next frame
+    private IOException writeError;
+
+    /**
+     * Create the binary frame view
+     *
+     * @param view the view that interacts with user
+     * @param channel the channel that receives the frames
+     */
+    public BinaryFrameView(GameView view, WritableByteChannel channel) {
+
+        this.view = view;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    }
+
+    /**
+     * Get number of written frame
+     *
+     * @return long number of written frame
+     */
+    public long getFrameCount() {
+        return sequence;
+    }
+
+    /**
+     * Get the code of the packed cell
+     *
+     * @param cell the packed cell
+     *
+     * @return byte the square code
+     */
+    public static byte getCode(byte cell) {
+        return CODE[cell & (CODE_COUNT - 1)];
+    }
+
+    /**
+     * Implement display board
+     *
+     * Write the whole board frame, then display the board
+     *
+     * @param board the game's board
+     *
+     * @throws IOException raise when write the frame error
+     * @throws BoardException raise when have the board error
+     */
+    @Override
+    public void displayBoard(Board board)
+            throws IOException, BoardException {
+        if (isRecorded(board))
+            writeBoard(board);
+        view.displayBoard(board);
+    }
+
+    /**
+     * Implement display chosen square
+     *
+     * Write the changed squares frame, then display the chosen square
+     * The whole board frame is written for the new board, or when the
+     * changed squares are overflowed
+     *
+     * @param board the game's board
+     * @param chosenRow the square's row index
+     * @param chosenColumn the square's column index
+     *
+     * @throws IOException raise when write the frame error
+     * @throws BoardException raise when have the board error
+     */
+    @Override
+    public void displayChosenSquare(Board board,
+                                    int chosenRow,
+                                    int chosenColumn)
+            throws IOException, BoardException {
+
+        // the board that is too large is displayed only
+        if (isRecorded(board)) {
+            if (board != writtenBoard || board.isChangeOverflowed())
+                writeBoard(board);
+            else
+                writeChanges(board);
+        }
+
+        view.displayChosenSquare(board, chosenRow, chosenColumn);
+
+    }
+
+    /**
+     * Implement pan board
+     *
+     * Write the changed squares that are not written yet (Ex: the moves
+     * before the scroll in the same line), the wrapped view clears them
+     * when it displays the board, then scroll the wrapped view
+     *
+     * @param board the game's board
+     * @param rowDirection -1 for up, 1 for down, 0 for not move
+     * @param colDirection -1 for left, 1 for right, 0 for not move
+     *
+     * @throws IOException raise when write the frame error
+     * @throws BoardException raise when have the board error
+     */
+    @Override
+    public void panBoard(Board board, int rowDirection, int colDirection)
+            throws IOException, BoardException {
+
+        if (isRecorded(board)) {
+            if (board != writtenBoard || board.isChangeOverflowed())
+                writeBoard(board);
+            else if (board.getChangedCount() > 0)
+                writeChanges(board);
+        }
+
+        view.panBoard(board, rowDirection, colDirection);
+
+    }
+
+    /**
+     * Implement on win
+     *
+     * Write the win frame, then display the win message
+     */
+    @Override
+    public void onWin() {
+        if (currentBoard != skippedBoard)
+            writeEnd(FRAME_WIN);
+        view.onWin();
+    }
+
+    /**
+     * Implement on lose
+     *
+     * Write the lose frame, then display the lose message
+     */
+    @Override
+    public void onLose() {
+        if (currentBoard != skippedBoard)
+            writeEnd(FRAME_LOSE);
+        view.onLose();
+    }
+
+    @Override
+    public String mainMenu() throws IOException {
+        return view.mainMenu();
+    }
+
+    @Override
+    public Map<String, String> gameSetting() throws IOException {
+        return view.gameSetting();
+    }
+
+    @Override
+    public Object chooseSquare() throws IOException {
+        return view.chooseSquare();
+    }
+
+    @Override
+    public void showMessage(String message, String type) throws IOException {
+        view.showMessage(message, type);
+    }
+
+    @Override
+    public Object chooseSquareMode() throws IOException {
+        return view.chooseSquareMode();
+    }
+
+    /**
+     * Implement has pending input
+     *
+     * Check the wrapped view's input
+     *
+     * @return boolean is the next input typed or not
+     *
+     * @throws IOException raise when have interact with user error
+     */
+    @Override
+    public boolean hasPendingInput() throws IOException {
+        return view.hasPendingInput();
+    }
+
+    /**
+     * Check is the board recorded or not, the board that has more squares
+     * than MAX_BOARD_SQUARES is not recorded, the warning message is
+     * shown once for it
+     */
+    private boolean isRecorded(Board board) throws IOException {
+
+        currentBoard = board;
+
+        if (board == writtenBoard)
+            return true;
+        if (board == skippedBoard)
+            return false;
+
+        int[] size = board.getSize();
+        if ((long) size[0] * size[1] <= MAX_BOARD_SQUARES)
+            return true;
+
+        skippedBoard = board;
+        view.showMessage(
+                "The board is too large to record (more than " +
+                MAX_BOARD_SQUARES + " squares), the game is not recorded",
+                MSG_WRN);
+
+        return false;
+
+    }
+
+    /**
+     * Write the whole board frame
+     */
+    private void writeBoard(Board board)
+            throws IOException, BoardException {
+
+        int[] size = board.getSize();
+        int height = size[0];
+        int width = size[1];
+
+        putHeader(FRAME_BOARD, height, width);
+
+        // 2 squares per byte, the first square in the high 4 bits
+        int pending = -1;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+
+                byte code = getCode(board.getCell(r, c));
+                if (pending < 0) {
+                    pending = code << 4;
+                    continue;
+                }
+
+                ensureRemaining(1);
+                buffer.put((byte) (pending | code));
+                pending = -1;
+
+            }
+        }
+
+        // the last square of odd board
+        if (pending >= 0) {
+            ensureRemaining(1);
+            buffer.put((byte) pending);
+        }
+
+        writeBuffer();
+
+        writtenBoard = board;
+
+    }
+
+    /**
+     * Write the changed squares frame, each square once
+     */
+    private void writeChanges(Board board)
+            throws IOException, BoardException {
+
+        int[] size = board.getSize();
+        int height = size[0];
+        int width = size[1];
+
+        // sort the changed squares by cell index, so the square that is
+        // changed twice is next to each other
+        int count = board.getChangedCount();
+        if (changes == null || changes.length < count)
+            changes = new long[count];
+        for (int i = 0; i < count; i++)
+            changes[i] = board.getChangedSquare(i);
+        Arrays.sort(changes, 0, count);
+
+        int unique = 0;
+        for (int i = 0; i < count; i++)
+            if (i == 0 || changes[i] != changes[i - 1])
+                changes[unique++] = changes[i];
+
+        putHeader(FRAME_CHANGES, height, width);
+        ensureRemaining(4);
+        buffer.putInt(unique);
+
+        for (int i = 0; i < unique; i++) {
+
+            int r = (int) (changes[i] / width);
+            int c = (int) (changes[i] - (long) r * width);
+
+            ensureRemaining(CHANGE_LENGTH);
+            buffer.putInt(r);
+            buffer.putInt(c);
+            buffer.put(getCode(board.getCell(r, c)));
+
+        }
+
+        writeBuffer();
+
+    }
+
+    /**
+     * Write the win or lose frame, the write error is thrown by the next
+     * frame
+     */
+    private void writeEnd(byte type) {
+
+        int height = 0;
+        int width = 0;
+        if (writtenBoard != null) {
+            height = writtenBoard.getSize()[0];
+            width = writtenBoard.getSize()[1];
+        }
+
+        try {
+            putHeader(type, height, width);
+            writeBuffer();
+        } catch (IOException e) {
+            writeError = e;
+        }
+
+    }
+
+    /**
+     * Put the frame header, throw the error of the last frame
+     */
+    private void putHeader(byte type, int height, int width)
+            throws IOException {
+
+        if (writeError != null) {
+            IOException error = writeError;
+            writeError = null;
+            throw error;
+        }
+
+        ensureRemaining(HEADER_LENGTH);
+        buffer.put(type);
+        buffer.putLong(sequence++);
+        buffer.putInt(height);
+        buffer.putInt(width);
+
+    }
+
+    /**
+     * Write the buffer to the channel when it has not enough space
+     */
+    private void ensureRemaining(int length) throws IOException {
+        if (buffer.remaining() < length)
+            writeBuffer();
+    }
+
+    /**
+     * Write the buffer to the channel, then clear it
+     */
+    private void writeBuffer() throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+
+    }
+
+}
@@ -0,0 +1,394 @@
+package jp.co.cyberagent.ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implement the user input from the non-blocking channel
+ *
+ * The channel is read by the selector, the bytes are decoded to the
+ * input lines (the commands) and kept in the queue, the game takes the
+ * commands from the queue in order. The bytes are decoded by the platform
+ * charset by default, same as the blocking reader of the standard input
+ *
+ * While the game is waiting for the next command, the scheduled tasks
+ * (Ex: the game timer, autosave) are run on the game thread when they
+ * are due, so the background work goes on without the thread per game.
+ * The task can add the command to the queue too (Ex: "0" when the time
+ * is over)
+ *
+ * The input stream (Ex: the standard input) is not selectable, it is
+ * copied to the pipe by one pump thread, the pipe is read by the selector
+ */
+public class ChannelInput implements Closeable {
+
+    // the read and decode buffer size
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    // the channel and its selector
+    private final ReadableByteChannel channel;
+    private final Selector selector;
+
+    // the read bytes and the decoded characters, reused for each read
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder;
+
+    // the line that is not ended yet
+    private final StringBuilder line = new StringBuilder();
+
+    // the commands that are not taken yet
+    private final Deque<String> commands = new ArrayDeque<String>();
+
+    // the scheduled tasks
+    private final List<ScheduledTask> tasks = new ArrayList<ScheduledTask>();
+
+    // is the channel end or not
+    private boolean isChannelEnd;
+
+    /**
+     * Create the input from the channel, the bytes are decoded by the
+     * platform charset
+     *
+     * @param channel the selectable channel that is read (Ex: pipe's
+     *                source, socket)
+     *
+     * @throws IOException raise when open the selector error
+     */
+    public <T extends SelectableChannel & ReadableByteChannel> ChannelInput(
+            T channel) throws IOException {
+        this(channel, Charset.defaultCharset());
+    }
+
+    /**
+     * Create the input from the channel, the channel is set to
+     * non-blocking and registered to the selector
+     *
+     * @param channel the selectable channel that is read (Ex: pipe's
+     *                source, socket)
+     * @param charset the charset that decodes the bytes
+     *
+     * @throws IOException raise when open the selector error
+     */
+    public <T extends SelectableChannel & ReadableByteChannel> ChannelInput(
+            T channel, Charset charset) throws IOException {
+
+        this.channel = channel;
+        this.selector = Selector.open();
+        this.decoder = charset
+                .newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+
+    }
+
+    /**
+     * Create the input from the input stream (Ex: the standard input),
+     * the bytes are decoded by the platform charset
+     *
+     * @param in the input stream
+     *
+     * @return ChannelInput the input from the pipe
+     *
+     * @throws IOException raise when open the pipe error
+     */
+    public static ChannelInput open(InputStream in) throws IOException {
+        return open(in, Charset.defaultCharset());
+    }
+
+    /**
+     * Create the input from the input stream (Ex: the standard input)
+     * The stream is copied to the pipe by the daemon pump thread, the pipe
+     * is closed when the stream ends
+     *
+     * @param in the input stream
+     * @param charset the charset that decodes the bytes
+     *
+     * @return ChannelInput the input from the pipe
+     *
+     * @throws IOException raise when open the pipe error
+     */
+    public static ChannelInput open(final InputStream in, Charset charset)
+            throws IOException {
+
+        final Pipe pipe = Pipe.open();
+
+        Thread pump = new Thread(new Runnable() {
+            @Override
+            public void run() {
+
+                ReadableByteChannel source = Channels.newChannel(in);
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                try {
+                    while (source.read(buffer) >= 0) {
+                        buffer.flip();
+                        while (buffer.hasRemaining())
+                            pipe.sink().write(buffer);
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    // the input ends when the stream or the pipe is broken
+                } finally {
+                    try {
+                        pipe.sink().close();
+                    } catch (IOException e) {
+                        // the pipe is closed already
+                    }
+                }
+
+            }
+        }, "input-pump");
+        pump.setDaemon(true);
+        pump.start();
+
+        return new ChannelInput(pipe.source(), charset);
+
+    }
+
+    /**
+     * Run the task on the game thread while waiting for the command, every
+     * period from now
+     * The task is run when the game waits in read line or poll, so the
+     * long task delays the input
+     *
+     * @param task the task
+     * @param period the period in milliseconds
+     */
+    public void schedule(Runnable task, long period) {
+        tasks.add(new ScheduledTask(
+                task,
+                TimeUnit.MILLISECONDS.toNanos(Math.max(period, 1))
+        ));
+    }
+
+    /**
+     * Add the command to the end of queue (Ex: from the scheduled task)
+     *
+     * @param command the command, one line of input
+     */
+    public void offer(String command) {
+        commands.add(command);
+    }
+
+    /**
+     * Check is all commands taken and the channel end or not
+     *
+     * @return boolean is input end or not
+     */
+    public boolean isEnd() {
+        return isChannelEnd && commands.isEmpty();
+    }
+
+    /**
+     * Take the next command, wait until the command is read from the
+     * channel or added by the task, the due tasks are run while waiting
+     *
+     * @return String the command, null when the input is end
+     *
+     * @throws IOException raise when read the channel error
+     */
+    public String readLine() throws IOException {
+
+        runTasks();
+        read();
+
+        while (commands.isEmpty() && !isChannelEnd) {
+
+            // wait for the channel or the next due task
+            selector.select(nextTaskDelay());
+            selector.selectedKeys().clear();
+
+            runTasks();
+            read();
+
+        }
+
+        return commands.poll();
+
+    }
+
+    /**
+     * Check is the next command ready or not, the available bytes are
+     * read without waiting
+     *
+     * @return boolean is the next command ready or not
+     *
+     * @throws IOException raise when read the channel error
+     */
+    public boolean ready() throws IOException {
+
+        read();
+
+        return !commands.isEmpty();
+
+    }
+
+    /**
+     * Take the next command without waiting, the due tasks are run
+     *
+     * @return String the command, null when there is no command now
+     *
+     * @throws IOException raise when read the channel error
+     */
+    public String poll() throws IOException {
+
+        runTasks();
+        read();
+
+        return commands.poll();
+
+    }
+
+    /**
+     * Close the selector and the channel
+     *
+     * @throws IOException raise when close error
+     */
+    @Override
+    public void close() throws IOException {
+        selector.close();
+        channel.close();
+    }
+
+    /**
+     * Read the available bytes without waiting, decode them to the
+     * commands
+     */
+    private void read() throws IOException {
+
+        if (isChannelEnd)
+            return;
+
+        int read;
+        while ((read = channel.read(bytes)) > 0)
+            decode(false);
+
+        // the channel end, the last line without line separator is the
+        // last command
+        if (read < 0) {
+            decode(true);
+            if (line.length() > 0) {
+                commands.add(line.toString());
+                line.setLength(0);
+            }
+            isChannelEnd = true;
+        }
+
+    }
+
+    /**
+     * Decode the read bytes, the ended lines are added to the commands
+     */
+    private void decode(boolean isEnd) {
+
+        bytes.flip();
+
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, isEnd);
+            if (isEnd && result.isUnderflow())
+                decoder.flush(chars);
+
+            chars.flip();
+            while (chars.hasRemaining()) {
+                char ch = chars.get();
+                if (ch == '\n') {
+                    commands.add(line.toString());
+                    line.setLength(0);
+                } else if (ch != '\r') {
+                    line.append(ch);
+                }
+            }
+            chars.clear();
+        } while (result.isOverflow());
+
+        // keep the bytes of the character that is not read fully
+        bytes.compact();
+
+    }
+
+    /**
+     * Run the due tasks
+     */
+    private void runTasks() {
+
+        long now = System.nanoTime();
+        for (int i = 0; i < tasks.size(); i++) {
+
+            ScheduledTask task = tasks.get(i);
+            if (now - task.next < 0)
+                continue;
+
+            task.task.run();
+
+            // the missed periods are skipped
+            task.next += task.period;
+            if (now - task.next >= 0)
+                task.next = now + task.period;
+
+        }
+
+    }
+
+    /**
+     * Get the time until the next due task in milliseconds, 0 when there
+     * is no task (the selector waits without timeout)
+     */
+    private long nextTaskDelay() {
+
+        if (tasks.isEmpty())
+            return 0;
+
+        long now = System.nanoTime();
+        long delay = Long.MAX_VALUE;
+        for (ScheduledTask task : tasks)
+            delay = Math.min(delay, task.next - now);
+
+        // wait at least 1 millisecond, 0 is without timeout
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(
+                delay + TimeUnit.MILLISECONDS.toNanos(1) - 1));
+
+    }
+
+    /**
+     * The task that is run every period
+     */
+    private static class ScheduledTask {
+
+        // the task and its period in nanoseconds
+        private final Runnable task;
+        private final long period;
+
+        // the next due time
+        private long next;
+
+        private ScheduledTask(Runnable task, long period) {
+            this.task = task;
+            this.period = period;
+            this.next = System.nanoTime() + period;
+        }
+
+    }
+
+}
@@ -4,6 +4,7 @@ import jp.co.cyberagent.components.*;
 import jp.co.cyberagent.components.exceptions.BoardException;
 
 import java.io.*;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -11,6 +12,10 @@ import java.util.Map;
  * Created by phucnh on 15/01/02.
  *
  * Implement game view for console
+ *
+ * Each frame and each message is written while holding the buffered
+ * writer's lock, so they are not mixed when the board is displayed
+ * on the renderer thread (AsyncGameView)
  */
 public class ConsoleView extends GameView {
 
@@ -18,13 +23,133 @@ public class ConsoleView extends GameView {
     public static final String ANSI_RESET = "\u001B[0m";
     public static final String ANSI_RED = "\u001B[31m";
     public static final String ANSI_YELLOW = "\u001B[33m";
+    // move cursor to top left and clear screen, clear from cursor to end
+    public static final String ANSI_CLEAR = "\u001B[H\u001B[2J";
+    public static final String ANSI_CLEAR_BELOW = "\u001B[J";
+
+    // maximum length of ANSI cursor position: ESC [ row ; column H
+    private static final int ANSI_CURSOR_LENGTH = 24;
+
+    // run-length encoded square: the square, then the run length in
+    // braces, Ex: ?{120} is 120 closed squares. The shorter runs are
+    // not encoded, they are not longer than the encoded run
+    public static final char RUN_START = '{';
+    public static final char RUN_END = '}';
+    public static final int RUN_MIN_LENGTH = 5;
+
+    // default viewport size, the part of board that is displayed
+    public static final int DEFAULT_VIEWPORT_ROWS = 50;
+    public static final int DEFAULT_VIEWPORT_COLS = 100;
+
+    // the glyph of each packed cell state, the index is the packed cell
+    // (number, mine, opened, mine checked bits)
+    private static final int GLYPH_COUNT = 128;
+    private static final char[] GLYPH = new char[GLYPH_COUNT];
+    // the coloured glyph: ANSI colour, glyph and ANSI reset
+    private static final char[][] COLOR_GLYPH = new char[GLYPH_COUNT][];
+    // maximum length of coloured glyph
+    private static final int MAX_COLOR_GLYPH_LENGTH;
+
+    // ANSI colour of number 1 to 8
+    private static final String[] NUMBER_COLOR = {
+            "\u001B[34m", "\u001B[32m", "\u001B[31m", "\u001B[35m",
+            "\u001B[33m", "\u001B[36m", "\u001B[37m", "\u001B[90m"
+    };
+
+    static {
+
+        // pre-encode the glyph of each cell state
+        // closed square is '?', mine checked square is 'x',
+        // empty square is ' ', number square is number, mine square is 'x'
+        int maxLength = 1;
+        for (int cell = 0; cell < GLYPH_COUNT; cell++) {
+
+            char glyph;
+            String color = null;
+            int value = cell & CellStore.VALUE_MASK;
+
+            if ((cell & CellStore.OPENED) == 0) {
+                if ((cell & CellStore.MINE_CHECKED) != 0) {
+                    glyph = 'x';
+                    color = ANSI_YELLOW;
+                } else {
+                    glyph = '?';
+                }
+            } else if ((cell & CellStore.MINE) != 0) {
+                glyph = 'x';
+                color = ANSI_RED;
+            } else if (value == 0) {
+                glyph = ' ';
+            } else {
+                glyph = (char) ('0' + value);
+                if (value <= NUMBER_COLOR.length)
+                    color = NUMBER_COLOR[value - 1];
+            }
+
+            GLYPH[cell] = glyph;
+            COLOR_GLYPH[cell] = color == null
+                    ? new char[] {glyph}
+                    : (color + glyph + ANSI_RESET).toCharArray();
+            maxLength = Math.max(maxLength, COLOR_GLYPH[cell].length);
+
+        }
+        MAX_COLOR_GLYPH_LENGTH = maxLength;
+
+    }
+
+    // the line separator, same with buffered writer's new line
+    private static final String LINE_SEPARATOR =
+            System.getProperty("line.separator");
 
     // buffer reader for get user input
     private BufferedReader buffReader;
 
+    // the non-blocking input for get user input, null when the input is
+    // read by the buffered reader
+    private ChannelInput channelInput;
+
     // buffer write for show message to user
     private BufferedWriter buffWriter;
 
+    // the frame buffer, reused when display the board
+    private char[] frame;
+
+    // how the board is displayed after each move
+    private RenderMode renderMode;
+
+    // display the square with ANSI colour or not
+    private boolean color;
+
+    // in diff mode, the messages that are shown after the last input,
+    // they are written again after the frame that clears them
+    private StringBuilder pendingMessages = new StringBuilder();
+
+    // the last displayed board, the changed squares are updated on it
+    private Board displayedBoard;
+
+    // the sorted cell index of changed squares, reused for each move
+    private long[] changes;
+
+    // viewport size and the top left square of viewport
+    private int viewportRows;
+    private int viewportCols;
+    private int viewTop;
+    private int viewLeft;
+
+    // the cached header lines, for the displayed columns and the row
+    // index length, reused across frames and games
+    private char[] header;
+    private int headerLeft;
+    private int headerCols;
+    private int headerRowIndexLength;
+
+    // the cached row indexes with white space, for the displayed rows and
+    // the row index length, reused across frames and games
+    private char[] rowLabels;
+    private int rowLabelsTop;
+    private int rowLabelsRows;
+    private int rowLabelsRowIndexLength;
+
     private ConsoleView() {}
 
     /**
@@ -34,16 +159,96 @@ public class ConsoleView extends GameView {
      * @param buffWriter buffered writer for show the message to user
      */
     public ConsoleView(BufferedReader buffReader, BufferedWriter buffWriter) {
+        this(buffReader, buffWriter, RenderMode.FULL);
+    }
+
+    /**
+     * Create the console view, set the buffered reader, writer and
+     * render mode
+     *
+     * In diff mode, the board is displayed from top left of the cleared
+     * screen, after each move only the changed squares are updated by
+     * ANSI cursor position, then the cursor is moved below the board
+     *
+     * @param buffReader buffered reader for read user input
+     * @param buffWriter buffered writer for show the message to user
+     * @param renderMode how the board is displayed after each move
+     */
+    public ConsoleView(BufferedReader buffReader,
+                       BufferedWriter buffWriter,
+                       RenderMode renderMode) {
+
         // set buffered reader and writer
         this.buffReader = buffReader;
         this.buffWriter = buffWriter;
+        this.renderMode = renderMode;
+
+        // set default viewport
+        this.viewportRows = DEFAULT_VIEWPORT_ROWS;
+        this.viewportCols = DEFAULT_VIEWPORT_COLS;
 
     }
 
+    /**
+     * Create the console view, set the non-blocking input, the buffered
+     * writer and render mode
+     *
+     * The user input is taken from the input's commands, the input's
+     * scheduled tasks are run while waiting for the user
+     *
+     * @param channelInput the non-blocking input for read user input
+     * @param buffWriter buffered writer for show the message to user
+     * @param renderMode how the board is displayed after each move
+     */
+    public ConsoleView(ChannelInput channelInput,
+                       BufferedWriter buffWriter,
+                       RenderMode renderMode) {
+
+        this((BufferedReader) null, buffWriter, renderMode);
+
+        this.channelInput = channelInput;
+
+    }
+
+    /**
+     * Set display the square with ANSI colour or not
+     * The number square has the colour of number, the mine checked
+     * square is yellow, the opened mine square is red
+     *
+     * @param color display with ANSI colour or not
+     */
+    public void setColor(boolean color) {
+        this.color = color;
+    }
+
+    /**
+     * Set the viewport size, the number of row and column of board that
+     * are displayed. The board that larger than viewport is scrolled by
+     * pan board
+     *
+     * @param rows number of displayed row
+     * @param cols number of displayed column
+     */
+    public void setViewport(int rows, int cols) {
+        this.viewportRows = Math.max(1, rows);
+        this.viewportCols = Math.max(1, cols);
+    }
+
     /**
      * Implement display board game
      *
      * Display game's board in console
+     * The whole frame is composed in the frame buffer first, then written
+     * and flushed once, so the terminal receives one frame per display
+     *
+     * When the board is larger than the viewport, only the viewport is
+     * displayed, followed by the scroll status. The column index is the
+     * alphabet (a to z, aa to az ...), the long column index is written
+     * from top to bottom in the header lines
+     *
+     * In run-length encoded mode, the runs of same square in each row are
+     * encoded (RunLengthDecoder restores them), the squares are not
+     * coloured
      *
      * @param board the game's board
      *
@@ -59,40 +264,124 @@ public class ConsoleView extends GameView {
         int height = size[0];
         int width = size[1];
 
-        // print board to screen
-        // print white space
-        int numberCharOfHeight = Integer.toString(height - 1).length();
-        this.printWhiteSpace(numberCharOfHeight + 1);
+        // new board is displayed from top left
+        if (board != this.displayedBoard) {
+            this.viewTop = 0;
+            this.viewLeft = 0;
+        }
+
+        // the displayed part of board
+        int top = this.viewTop;
+        int left = this.viewLeft;
+        int rows = getViewRows(height);
+        int cols = getViewCols(width);
+
+        // number character of row index, the row index and white space
+        // are in front of each row
+        int rowIndexLength = getNumberLength(height - 1);
+        boolean runLength = this.renderMode == RenderMode.RLE;
+        int glyphLength = this.color && !runLength
+                          ? MAX_COLOR_GLYPH_LENGTH
+                          : 1;
+        int lineLength = rowIndexLength + 1 + cols * glyphLength
+                + LINE_SEPARATOR.length();
+        int headerLines = getColumnIndexLength(left + cols - 1);
+
+        // the scroll status when the board is larger than viewport
+        String status = null;
+        if (rows < height || cols < width)
+            status = String.format(
+                    "rows %d-%d of %d, columns %s-%s of %d " +
+                            "(scroll by <, >, ^, v)",
+                    top, top + rows - 1, height,
+                    getColumnIndex(left), getColumnIndex(left + cols - 1),
+                    width);
+
+        // ensure the frame buffer can keep the header, rows and status
+        char[] frame = ensureFrame(
+                (long) lineLength * (headerLines + rows)
+                        + (status == null ? 0 : status.length()
+                                                + LINE_SEPARATOR.length()));
+        int pos = 0;
+
+        // compose the header, the cached header lines
+        char[] header = getHeader(left, cols, rowIndexLength);
+        System.arraycopy(header, 0, frame, pos, header.length);
+        pos += header.length;
+
+        // the cached row indexes, each one has the same length
+        char[] rowLabels = getRowLabels(top, rows, rowIndexLength);
+        int rowLabelLength = rowIndexLength + 1;
+
+        for (int r = top; r < top + rows; r++) {
+
+            // compose row index with white space
+            System.arraycopy(rowLabels, (r - top) * rowLabelLength,
+                             frame, pos, rowLabelLength);
+            pos += rowLabelLength;
+
+            // compose the square
+            if (runLength)
+                pos = putRunLengthRow(frame, pos, board, r, left, cols);
+            else
+                for (int c = left; c < left + cols; c++)
+                    pos = putGlyph(frame, pos, board.getCell(r, c));
+
+            pos = putLineSeparator(frame, pos);
+
+        }
 
-        // print column index
-        for (int c = 0; c < width; c++) {
-            // print column index, alphabet
-            buffWriter.write(this.getCharForNumber(c));
+        // compose the scroll status
+        if (status != null) {
+            status.getChars(0, status.length(), frame, pos);
+            pos = putLineSeparator(frame, pos + status.length());
         }
-        buffWriter.newLine();
-        buffWriter.flush();
 
-        for (int r = 0; r < height; r++) {
-            // print row index
-            buffWriter.write(String.format("%d", r));
+        // write the frame once, in diff mode clear the screen first, then
+        // write the cleared messages again
+        synchronized (buffWriter) {
+            if (this.renderMode == RenderMode.DIFF)
+                buffWriter.write(ANSI_CLEAR);
+            buffWriter.write(frame, 0, pos);
+            buffWriter.append(pendingMessages);
             buffWriter.flush();
+        }
 
-            // print the white space if number character of row
-            // is not same with height
-            this.printWhiteSpace(
-                    numberCharOfHeight - Integer.toString(r).length() + 1);
+        // the changed squares are displayed
+        board.clearChanges();
+        this.displayedBoard = board;
 
-            // display the square
-            for (int c = 0; c < width; c++) {
-                displaySquare(board.getSquare(r, c));
-            }
+    }
 
-            // write new line
-            buffWriter.newLine();
+    /**
+     * Implement pan board
+     *
+     * Move the viewport by half of viewport size, then re-display
+     * the board
+     *
+     * @param board the displayed board
+     * @param rowDirection -1 for up, 1 for down, 0 for not move
+     * @param colDirection -1 for left, 1 for right, 0 for not move
+     *
+     * @throws IOException raise when have user interact error
+     * @throws BoardException raise when have the board exception
+     */
+    @Override
+    public void panBoard(Board board, int rowDirection, int colDirection)
+            throws IOException, BoardException {
 
-        }
+        int[] size = board.getSize();
 
-        buffWriter.flush();
+        // keep the viewport when display the same board
+        this.displayedBoard = board;
+
+        int rowStep = Math.max(1, getViewRows(size[0]) / 2);
+        int colStep = Math.max(1, getViewCols(size[1]) / 2);
+        moveViewport(size[0], size[1],
+                     this.viewTop + rowDirection * rowStep,
+                     this.viewLeft + colDirection * colStep);
+
+        this.displayBoard(board);
 
     }
 
@@ -109,18 +398,20 @@ public class ConsoleView extends GameView {
     public String mainMenu() throws IOException {
 
         // show message
-        buffWriter.write("Please choose below options");
-        buffWriter.newLine();
-        buffWriter.write("0. Exit game");
-        buffWriter.newLine();
-        buffWriter.write("1. Create new game");
-        buffWriter.newLine();
-        buffWriter.write("2. Setting");
-        buffWriter.newLine();
-        buffWriter.flush();
+        synchronized (buffWriter) {
+            buffWriter.write("Please choose below options");
+            buffWriter.newLine();
+            buffWriter.write("0. Exit game");
+            buffWriter.newLine();
+            buffWriter.write("1. Create new game");
+            buffWriter.newLine();
+            buffWriter.write("2. Setting");
+            buffWriter.newLine();
+            buffWriter.flush();
+        }
 
         // get user input
-        return buffReader.readLine();
+        return readInput();
 
     }
 
@@ -158,17 +449,27 @@ public class ConsoleView extends GameView {
      */
     private String getGameSettingItem(String item) throws IOException {
 
-        buffWriter.write("Please, set the " + item);
-        buffWriter.newLine();
-        buffWriter.flush();
-        return buffReader.readLine();
+        synchronized (buffWriter) {
+            buffWriter.write("Please, set the " + item);
+            buffWriter.newLine();
+            buffWriter.flush();
+        }
+        return readInput();
 
     }
 
     /**
      * Implement display the chosen square.
      *
-     * In console mode, the implement is re-display the board
+     * In full mode, the implement is re-display the board
+     * In diff mode, the changed squares since the last frame (the chosen
+     * square and the opened related squares) are updated, the squares
+     * are sorted so the changed squares in a row are written after one
+     * cursor position. When the board is not displayed yet or there are
+     * too many changed squares, re-display the board
+     *
+     * When the chosen square is out of viewport, the viewport is moved
+     * to the chosen square and the board is re-displayed
      *
      * @param board the board that want to display the chosen square
      * @param chosenRow the square's row index
@@ -181,8 +482,95 @@ public class ConsoleView extends GameView {
     public void displayChosenSquare(Board board, int chosenRow, int chosenCol)
             throws IOException, BoardException {
 
-        // in console mode, when display chosen square, re-display board
-        this.displayBoard(board);
+        // get board size
+        int[] size = board.getSize();
+        int height = size[0];
+        int width = size[1];
+
+        // move the viewport, the chosen square is in the center
+        if (board == this.displayedBoard
+                && !isInViewport(height, width, chosenRow, chosenCol)) {
+            moveViewport(height, width,
+                         chosenRow - getViewRows(height) / 2,
+                         chosenCol - getViewCols(width) / 2);
+            this.displayBoard(board);
+            return;
+        }
+
+        // in full mode, when display chosen square, re-display board
+        if (this.renderMode != RenderMode.DIFF
+                || board != this.displayedBoard
+                || board.isChangeOverflowed()) {
+            this.displayBoard(board);
+            return;
+        }
+
+        // the displayed part of board
+        int top = this.viewTop;
+        int left = this.viewLeft;
+        int rows = getViewRows(height);
+        int cols = getViewCols(width);
+        int rowIndexLength = getNumberLength(height - 1);
+        int headerLines = getColumnIndexLength(left + cols - 1);
+        int statusLines = rows < height || cols < width ? 1 : 0;
+
+        // sort the changed squares by cell index
+        int count = board.getChangedCount();
+        if (this.changes == null || this.changes.length < count)
+            this.changes = new long[count];
+        for (int i = 0; i < count; i++)
+            this.changes[i] = board.getChangedSquare(i);
+        Arrays.sort(this.changes, 0, count);
+
+        // ensure the frame buffer can keep the cursor position and the
+        // square for each changed square
+        int glyphLength = this.color ? MAX_COLOR_GLYPH_LENGTH : 1;
+        char[] frame = ensureFrame((long) count
+                                   * (ANSI_CURSOR_LENGTH + glyphLength)
+                                   + ANSI_CURSOR_LENGTH
+                                   + ANSI_CLEAR_BELOW.length());
+        int pos = 0;
+
+        long previous = -1;
+        for (int i = 0; i < count; i++) {
+
+            // skip the square that is changed twice
+            long index = this.changes[i];
+            if (index == previous)
+                continue;
+
+            // skip the square that is out of viewport
+            int r = (int) (index / width);
+            int c = (int) (index - (long) r * width);
+            if (r < top || r >= top + rows || c < left || c >= left + cols)
+                continue;
+
+            // move cursor when square is not next to the previous square,
+            // the header lines are the first lines of screen
+            if (index != previous + 1 || c == left)
+                pos = putCursor(frame, pos,
+                                headerLines + 1 + r - top,
+                                rowIndexLength + 2 + c - left);
+
+            pos = putGlyph(frame, pos, board.getCell(r, c));
+            previous = index;
+
+        }
+
+        // move cursor below the board and status, clear the old messages
+        pos = putCursor(frame, pos, headerLines + rows + statusLines + 1, 1);
+        for (int i = 0; i < ANSI_CLEAR_BELOW.length(); i++)
+            frame[pos++] = ANSI_CLEAR_BELOW.charAt(i);
+
+        // write the changes once, then write the cleared messages again
+        // (Ex: the error of the chosen square)
+        synchronized (buffWriter) {
+            buffWriter.write(frame, 0, pos);
+            buffWriter.append(pendingMessages);
+            buffWriter.flush();
+        }
+
+        board.clearChanges();
 
     }
 
@@ -217,11 +605,13 @@ public class ConsoleView extends GameView {
      */
     @Override
     public String chooseSquare() throws IOException {
-        buffWriter.write("Please, choose square to open or " +
-                "mine check (0 for back to Main Menu)");
-        buffWriter.newLine();
-        buffWriter.flush();
-        return buffReader.readLine();
+        synchronized (buffWriter) {
+            buffWriter.write("Please, choose square to open or " +
+                    "mine check (0 for back to Main Menu)");
+            buffWriter.newLine();
+            buffWriter.flush();
+        }
+        return readInput();
     }
 
     /**
@@ -246,9 +636,19 @@ public class ConsoleView extends GameView {
         else if (type.equals(MSG_WRN))
             color = ANSI_YELLOW;
 
-        buffWriter.write(color + message + ANSI_RESET);
-        buffWriter.newLine();
-        buffWriter.flush();
+        synchronized (buffWriter) {
+            buffWriter.write(color + message + ANSI_RESET);
+            buffWriter.newLine();
+            buffWriter.flush();
+
+            // keep the message until the next input, the diff frame
+            // clears it
+            if (this.renderMode == RenderMode.DIFF)
+                pendingMessages.append(color)
+                               .append(message)
+                               .append(ANSI_RESET)
+                               .append(LINE_SEPARATOR);
+        }
     }
 
     /**
@@ -263,64 +663,356 @@ public class ConsoleView extends GameView {
      */
     @Override
     public String chooseSquareMode() throws IOException {
-        buffWriter.write("Please, choose open (o) or toggle mine checked (x)");
-        buffWriter.newLine();
-        buffWriter.flush();
+        synchronized (buffWriter) {
+            buffWriter.write(
+                    "Please, choose open (o) or toggle mine checked (x)");
+            buffWriter.newLine();
+            buffWriter.flush();
+        }
+        return readInput();
+    }
+
+    /**
+     * Implement has pending input
+     *
+     * Check is the next input line typed or not, the typed characters in
+     * the reader or the commands in the non-blocking input
+     *
+     * @return boolean is the next input typed or not
+     *
+     * @throws IOException raise when have interact with user error
+     */
+    @Override
+    public boolean hasPendingInput() throws IOException {
+
+        if (channelInput != null)
+            return channelInput.ready();
+
+        return buffReader != null && buffReader.ready();
+
+    }
+
+    /**
+     * Get the user input line, from the non-blocking input or the buffered
+     * reader
+     */
+    private String readInput() throws IOException {
+
+        // the messages are seen before the input
+        synchronized (buffWriter) {
+            pendingMessages.setLength(0);
+        }
+
+        if (channelInput != null)
+            return channelInput.readLine();
+
         return buffReader.readLine();
+
     }
 
     /**
-     * Convert the number to char.
-     * Example: 1 is a, 2 is b ...
-     * @param i the number that want to convert
-     * @return String the correspond string
+     * Get number of displayed row
      */
-    private String getCharForNumber(int i) {
-        // alphabet letter is from 97 (a) to 122 (z)
-        return i >= 0 && i < 26 ? String.valueOf((char)(i + 97)) : null;
+    private int getViewRows(int height) {
+        return Math.min(height, this.viewportRows);
+    }
+
+    /**
+     * Get number of displayed column
+     */
+    private int getViewCols(int width) {
+        return Math.min(width, this.viewportCols);
     }
 
-    private void printWhiteSpace(int numberWhiteSpace) throws IOException {
-        for (int i = 0; i < numberWhiteSpace; i++) {
-            buffWriter.write(' ');
+    /**
+     * Check is square in viewport or not
+     */
+    private boolean isInViewport(int height, int width, int row, int col) {
+        return row >= this.viewTop && row < this.viewTop + getViewRows(height)
+                && col >= this.viewLeft
+                && col < this.viewLeft + getViewCols(width);
+    }
+
+    /**
+     * Move the top left of viewport, the viewport is kept in the board
+     */
+    private void moveViewport(int height, int width, int top, int left) {
+        this.viewTop = Math.max(0, Math.min(top, height - getViewRows(height)));
+        this.viewLeft = Math.max(0, Math.min(left, width - getViewCols(width)));
+    }
+
+    /**
+     * Get the header lines, white space and column index (alphabet) of
+     * the displayed columns, the column index is aligned to the last
+     * header line. The header is built when the displayed columns or the
+     * row index length are changed
+     *
+     * @param left the first displayed column
+     * @param cols number of displayed column
+     * @param rowIndexLength number of character of row index
+     *
+     * @return char[] the header lines with line separator
+     */
+    private char[] getHeader(int left, int cols, int rowIndexLength) {
+
+        if (this.header != null
+                && this.headerLeft == left
+                && this.headerCols == cols
+                && this.headerRowIndexLength == rowIndexLength)
+            return this.header;
+
+        int headerLines = getColumnIndexLength(left + cols - 1);
+        char[] header = new char[headerLines * (rowIndexLength + 1 + cols
+                                                + LINE_SEPARATOR.length())];
+        int pos = 0;
+        for (int line = 0; line < headerLines; line++) {
+
+            for (int i = 0; i <= rowIndexLength; i++)
+                header[pos++] = ' ';
+
+            int charIndex = headerLines - 1 - line;
+            for (int c = left; c < left + cols; c++)
+                header[pos++] = getColumnIndexChar(c, charIndex);
+
+            pos = putLineSeparator(header, pos);
+
         }
-        buffWriter.flush();
+
+        this.header = header;
+        this.headerLeft = left;
+        this.headerCols = cols;
+        this.headerRowIndexLength = rowIndexLength;
+
+        return header;
+
     }
 
     /**
-     * Display the square. Empty square is ' ', Number square is number,
+     * Get the row indexes of the displayed rows, each row index is
+     * followed by the white space to the row index length, then one white
+     * space. The row indexes are built when the displayed rows or the row
+     * index length are changed
      *
-     * Mine square is 'x'
+     * @param top the first displayed row
+     * @param rows number of displayed row
+     * @param rowIndexLength number of character of row index
      *
-     * @param square the square that want to display
+     * @return char[] the row indexes, row index length + 1 per row
      */
-    private void displaySquare(Square square) throws IOException {
+    private char[] getRowLabels(int top, int rows, int rowIndexLength) {
 
-        if (!square.isOpened()) {
+        if (this.rowLabels != null
+                && this.rowLabelsTop == top
+                && this.rowLabelsRows == rows
+                && this.rowLabelsRowIndexLength == rowIndexLength)
+            return this.rowLabels;
 
-            if (square.isMineChecked())
-                buffWriter.write('x');
-            else
-                buffWriter.write('?');
+        char[] rowLabels = new char[rows * (rowIndexLength + 1)];
+        int pos = 0;
+        for (int r = top; r < top + rows; r++) {
 
-        } else {
+            int rowLength = getNumberLength(r);
+            pos = putNumber(rowLabels, pos, r, rowLength);
+            for (int i = rowLength; i <= rowIndexLength; i++)
+                rowLabels[pos++] = ' ';
 
-            // display square components, correspond with type of square
-            if (square instanceof EmptySquare) {
-                buffWriter.write(' ');
+        }
+
+        this.rowLabels = rowLabels;
+        this.rowLabelsTop = top;
+        this.rowLabelsRows = rows;
+        this.rowLabelsRowIndexLength = rowIndexLength;
+
+        return rowLabels;
+
+    }
+
+    /**
+     * Get the column index, the alphabet index
+     * Example: 0 is a, 25 is z, 26 is aa, 27 is ab ...
+     *
+     * @param col the column number
+     *
+     * @return String the column index
+     */
+    public static String getColumnIndex(int col) {
 
-            } else if (square instanceof MineSquare) {
+        int length = getColumnIndexLength(col);
+        char[] index = new char[length];
+        for (int i = 0; i < length; i++)
+            index[length - 1 - i] = getColumnIndexChar(col, i);
 
-                buffWriter.write('x');
+        return new String(index);
 
-            } else if (square instanceof NumberSquare) {
+    }
 
-                NumberSquare numSquare = (NumberSquare) square;
-                buffWriter.write(numSquare.getValue().toString());
+    /**
+     * Get number of character of column index
+     */
+    private static int getColumnIndexLength(int col) {
+        int length = 1;
+        for (int n = col / 26; n > 0; n = (n - 1) / 26)
+            length++;
+        return length;
+    }
 
+    /**
+     * Get the character of column index, counted from the last character
+     * Space when the column index is shorter
+     *
+     * @param col the column number
+     * @param charIndex the character position, 0 is the last character
+     */
+    private static char getColumnIndexChar(int col, int charIndex) {
+
+        if (charIndex >= getColumnIndexLength(col))
+            return ' ';
+
+        int n = col;
+        for (int i = 0; i < charIndex; i++)
+            n = n / 26 - 1;
+
+        // alphabet letter is from 97 (a) to 122 (z)
+        return (char) (n % 26 + 97);
+
+    }
+
+    /**
+     * Ensure the frame buffer can keep the length, grow when needed
+     *
+     * @return char[] the frame buffer
+     *
+     * @throws IOException when the length is over the array limit
+     */
+    private char[] ensureFrame(long length) throws IOException {
+
+        if (length > Integer.MAX_VALUE - 8)
+            throw new IOException("Board is too large to display");
+
+        if (this.frame == null || this.frame.length < length)
+            this.frame = new char[(int) length];
+
+        return this.frame;
+
+    }
+
+    /**
+     * Put the non negative number to the frame
+     *
+     * @param length number of digit of the number
+     *
+     * @return int the position after the number
+     */
+    private static int putNumber(char[] frame, int pos, int number,
+                                 int length) {
+        for (int i = length - 1, n = number; i >= 0; i--, n /= 10)
+            frame[pos + i] = (char) ('0' + n % 10);
+        return pos + length;
+    }
+
+    /**
+     * Put the ANSI cursor position to the frame, row and column from 1
+     *
+     * @return int the position after the cursor position
+     */
+    private static int putCursor(char[] frame, int pos, int row, int col) {
+        frame[pos++] = '\u001B';
+        frame[pos++] = '[';
+        pos = putNumber(frame, pos, row, getNumberLength(row));
+        frame[pos++] = ';';
+        pos = putNumber(frame, pos, col, getNumberLength(col));
+        frame[pos++] = 'H';
+        return pos;
+    }
+
+    /**
+     * Get the number of digit of the non negative number
+     */
+    private static int getNumberLength(int number) {
+        int length = 1;
+        for (int n = number; n >= 10; n /= 10)
+            length++;
+        return length;
+    }
+
+    /**
+     * Put the line separator to the frame
+     *
+     * @return int the position after the line separator
+     */
+    private static int putLineSeparator(char[] frame, int pos) {
+        for (int i = 0; i < LINE_SEPARATOR.length(); i++)
+            frame[pos++] = LINE_SEPARATOR.charAt(i);
+        return pos;
+    }
+
+    /**
+     * Put the run-length encoded squares of the row to the frame
+     * The encoded row is not longer than the row's squares
+     *
+     * @param row the row index
+     * @param left the first column index
+     * @param cols number of column
+     *
+     * @return int the position after the squares
+     */
+    private int putRunLengthRow(char[] frame,
+                                int pos,
+                                Board board,
+                                int row,
+                                int left,
+                                int cols) throws BoardException {
+
+        char glyph = 0;
+        int run = 0;
+        for (int c = left; c <= left + cols; c++) {
+
+            // the next glyph, the end of row ends the last run
+            char next = c < left + cols
+                        ? GLYPH[board.getCell(row, c) & (GLYPH_COUNT - 1)]
+                        : 0;
+            if (run > 0 && next == glyph) {
+                run++;
+                continue;
             }
 
+            // put the run, the glyph and its length
+            if (run >= RUN_MIN_LENGTH) {
+                frame[pos++] = glyph;
+                frame[pos++] = RUN_START;
+                pos = putNumber(frame, pos, run, getNumberLength(run));
+                frame[pos++] = RUN_END;
+            } else {
+                for (int i = 0; i < run; i++)
+                    frame[pos++] = glyph;
+            }
+
+            glyph = next;
+            run = 1;
+
+        }
+
+        return pos;
+
+    }
+
+    /**
+     * Put the glyph of packed cell to the frame, one table lookup
+     *
+     * @param cell the packed cell
+     *
+     * @return int the position after the glyph
+     */
+    private int putGlyph(char[] frame, int pos, byte cell) {
+
+        if (!this.color) {
+            frame[pos] = GLYPH[cell & (GLYPH_COUNT - 1)];
+            return pos + 1;
         }
 
+        char[] glyph = COLOR_GLYPH[cell & (GLYPH_COUNT - 1)];
+        System.arraycopy(glyph, 0, frame, pos, glyph.length);
+        return pos + glyph.length;
+
     }
 }
@@ -32,7 +32,7 @@ public abstract class GameView {
     /**
      * Display the main menu, get user input
      *
-     * @return String the user input
+     * @return String the user input, null when the input is end
      *
      * @throws IOException raise when have user interact error
      */
@@ -41,7 +41,8 @@ public abstract class GameView {
     /**
      * Display the setting request input message, get input from user
      *
-     * @return Map<String, String> the game's setting that get from user
+     * @return Map<String, String> the game's setting that get from user,
+     *         the setting is null when the input is end
      *
      * @throws IOException raise when have user interact error
      */
@@ -53,6 +54,36 @@ public abstract class GameView {
             int chosenColumn)
             throws IOException, BoardException;
 
+    /**
+     * Scroll the displayed part of board, then display the board
+     * The view that displays the whole board displays it again
+     *
+     * @param board the game's board
+     * @param rowDirection -1 for up, 1 for down, 0 for not move
+     * @param colDirection -1 for left, 1 for right, 0 for not move
+     *
+     * @throws IOException raise when have interact with user error
+     * @throws BoardException raise when have the board error
+     */
+    public void panBoard(Board board, int rowDirection, int colDirection)
+            throws IOException, BoardException {
+        displayBoard(board);
+    }
+
+    /**
+     * Check is the next user input already typed or not (Ex: the player
+     * types the moves quickly, the moves are piped), so the board can be
+     * displayed once after the typed inputs are played
+     * The view that cannot check it has no pending input
+     *
+     * @return boolean is the next input typed or not
+     *
+     * @throws IOException raise when have interact with user error
+     */
+    public boolean hasPendingInput() throws IOException {
+        return false;
+    }
+
     /**
      * Do action when user win
      */
@@ -66,7 +97,8 @@ public abstract class GameView {
     /**
      * Display the choose square request message, get chosen square from user
      *
-     * @return String the chosen square from user
+     * @return String the chosen square from user, null when the input
+     *         is end
      *
      * @throws IOException raise when have the board exception
      */
@@ -98,7 +130,8 @@ public abstract class GameView {
      * Display the choose square mode message, get chosen mode from user
      * The square mode is open square or toggle mine check
      *
-     * @return String the square mode, open or mine check
+     * @return String the square mode, open or mine check, null when the
+     *         input is end
      *
      * @throws IOException raise when have the board exception
      */
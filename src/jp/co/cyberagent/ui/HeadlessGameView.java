@@ -0,0 +1,364 @@
+package jp.co.cyberagent.ui;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.PlayStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implement game view without display
+ *
+ * The inputs are taken from the in-memory inputs in order, same as the
+ * lines that the user inputs in console (main menu option, the settings,
+ * the chosen square and the square mode). When the inputs run out, the
+ * view returns null to every input request, so the game ends and exits
+ * at any prompt
+ *
+ * The inputs can be streamed from the reader (Ex: the large move log
+ * file), one line is read when the game needs the next input, so the
+ * inputs are not kept in memory
+ *
+ * The board is not displayed, the displayed moves, the wins, the loses
+ * and the messages are counted only, so the game logic can be measured
+ * without the output
+ */
+public class HeadlessGameView extends GameView {
+
+    // the inputs, null when the inputs are streamed
+    private String[] inputs;
+
+    // the streamed inputs, null when the inputs are in memory
+    private BufferedReader reader;
+
+    // is the streamed inputs run out or not
+    private boolean isReaderEnd;
+
+    // the next input index
+    private int position;
+
+    // number of displayed board, displayed move, win, lose and message
+    private long boardCount;
+    private long displayedMoveCount;
+    private long winCount;
+    private long loseCount;
+    private long messageCount;
+
+    // the last message
+    private String lastMessage;
+
+    // the last displayed board
+    private Board lastBoard;
+
+    // the last board's status: win, lose, or normal when the game is not
+    // ended (Ex: back to main menu, the inputs run out)
+    private PlayStatus lastStatus;
+
+    /**
+     * Create the headless view
+     *
+     * @param inputs the user inputs, one input per line in console
+     */
+    public HeadlessGameView(String[] inputs) {
+        this.inputs = inputs;
+    }
+
+    /**
+     * Create the headless view
+     *
+     * @param inputs the user inputs, one input per line in console
+     */
+    public HeadlessGameView(List<String> inputs) {
+        this(inputs.toArray(new String[inputs.size()]));
+    }
+
+    /**
+     * Create the headless view, the inputs are read from the reader
+     * when they are needed
+     *
+     * @param reader the user inputs, one input per line in console
+     */
+    public HeadlessGameView(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the inputs from the first input again, clear the counts
+     * So the same inputs can be played again without creating the view
+     * The streamed inputs cannot be read again
+     */
+    public void rewind() {
+
+        if (reader != null)
+            throw new IllegalStateException(
+                    "The streamed inputs cannot be read again");
+
+        position = 0;
+        boardCount = 0;
+        displayedMoveCount = 0;
+        winCount = 0;
+        loseCount = 0;
+        messageCount = 0;
+        lastMessage = null;
+        lastBoard = null;
+        lastStatus = null;
+
+    }
+
+    /**
+     * Check is all inputs read or not
+     *
+     * @return boolean is all inputs read or not
+     */
+    public boolean isEnd() {
+
+        if (reader != null)
+            return isReaderEnd;
+
+        return position >= inputs.length;
+
+    }
+
+    /**
+     * Get number of displayed board, the new games and the pans
+     *
+     * @return long number of displayed board
+     */
+    public long getBoardCount() {
+        return boardCount;
+    }
+
+    /**
+     * Get number of displayed move, the moves in one line are displayed
+     * once after the last move, so the played moves can be more
+     *
+     * @return long number of displayed move
+     */
+    public long getDisplayedMoveCount() {
+        return displayedMoveCount;
+    }
+
+    /**
+     * Get number of won game
+     *
+     * @return long number of won game
+     */
+    public long getWinCount() {
+        return winCount;
+    }
+
+    /**
+     * Get number of lost game
+     *
+     * @return long number of lost game
+     */
+    public long getLoseCount() {
+        return loseCount;
+    }
+
+    /**
+     * Get number of message, the wrong inputs and the wrong moves
+     *
+     * @return long number of message
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Get the last message
+     *
+     * @return String the last message, null when there is no message
+     */
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    /**
+     * Get the last displayed board
+     *
+     * @return Board the last board, null when there is no board
+     */
+    public Board getLastBoard() {
+        return lastBoard;
+    }
+
+    /**
+     * Get the last board's status
+     *
+     * @return PlayStatus WIN, LOSE, NORMAL when the last game is not
+     *         ended, null when there is no board
+     */
+    public PlayStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * Implement display board
+     *
+     * Count the board, do not display it
+     *
+     * @param board the game's board
+     */
+    @Override
+    public void displayBoard(Board board) {
+        boardCount++;
+
+        // the new game is playing
+        if (board != lastBoard)
+            lastStatus = PlayStatus.NORMAL;
+        lastBoard = board;
+
+        // the changed squares are not displayed, do not keep them
+        board.clearChanges();
+    }
+
+    /**
+     * Implement main menu
+     *
+     * Get the next input
+     *
+     * @return String the main menu option
+     *
+     * @throws IOException raise when read the streamed inputs error
+     */
+    @Override
+    public String mainMenu() throws IOException {
+        return nextInput();
+    }
+
+    /**
+     * Implement game setting
+     *
+     * Get the height, the width and the mine quantity from the next inputs
+     *
+     * @return Map<String, String> the game's setting
+     *
+     * @throws IOException raise when read the streamed inputs error
+     */
+    @Override
+    public Map<String, String> gameSetting() throws IOException {
+
+        Map<String, String> settings = new HashMap<String, String>();
+        settings.put("height", nextInput());
+        settings.put("width", nextInput());
+        settings.put("mine_quantity", nextInput());
+
+        return settings;
+
+    }
+
+    /**
+     * Implement display chosen square
+     *
+     * Count the displayed move, do not display it
+     *
+     * @param board the game's board
+     * @param chosenRow the square's row index
+     * @param chosenColumn the square's column index
+     */
+    @Override
+    public void displayChosenSquare(Board board,
+                                    int chosenRow,
+                                    int chosenColumn) {
+        displayedMoveCount++;
+        lastBoard = board;
+
+        // the changed squares are not displayed, do not keep them
+        board.clearChanges();
+    }
+
+    /**
+     * Implement on win
+     *
+     * Count the won game
+     */
+    @Override
+    public void onWin() {
+        winCount++;
+        lastStatus = PlayStatus.WIN;
+    }
+
+    /**
+     * Implement on lose
+     *
+     * Count the lost game
+     */
+    @Override
+    public void onLose() {
+        loseCount++;
+        lastStatus = PlayStatus.LOSE;
+    }
+
+    /**
+     * Implement choose square
+     *
+     * Get the next input
+     *
+     * @return String the chosen square
+     *
+     * @throws IOException raise when read the streamed inputs error
+     */
+    @Override
+    public Object chooseSquare() throws IOException {
+        return nextInput();
+    }
+
+    /**
+     * Implement show message
+     *
+     * Count the message, keep the last message
+     *
+     * @param message the message
+     * @param type the type of message (error, warning)
+     */
+    @Override
+    public void showMessage(String message, String type) {
+        messageCount++;
+        lastMessage = message;
+    }
+
+    /**
+     * Implement choose square mode
+     *
+     * Get the next input
+     *
+     * @return String the square mode, open or mine check
+     *
+     * @throws IOException raise when read the streamed inputs error
+     */
+    @Override
+    public Object chooseSquareMode() throws IOException {
+        return nextInput();
+    }
+
+    /**
+     * Get the next input, null when the inputs run out
+     */
+    private String nextInput() throws IOException {
+
+        // read the next line of the streamed inputs
+        if (reader != null) {
+
+            String line = isReaderEnd ? null : reader.readLine();
+            if (line == null) {
+                isReaderEnd = true;
+
+                return null;
+            }
+
+            return line;
+
+        }
+
+        if (position >= inputs.length)
+            return null;
+
+        return inputs[position++];
+
+    }
+
+}
@@ -0,0 +1,11 @@
+package jp.co.cyberagent.ui;
+
+/**
+ * The console view's render mode
+ * This enum describe how the board is displayed after each move
+ */
+public enum RenderMode {
+    FULL, // display the whole board after each move
+    DIFF, // update the changed squares only, by ANSI cursor position
+    RLE // display the whole board, the runs of same square are encoded
+}
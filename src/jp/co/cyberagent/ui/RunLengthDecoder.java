@@ -0,0 +1,122 @@
+package jp.co.cyberagent.ui;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Decode the console output that is run-length encoded (render mode RLE)
+ * The encoded run, the square then its length in braces (Ex: ?{120}), is
+ * restored to the squares. The other text is not changed
+ *
+ * Decode the saved output from command line (Main's --decode option):
+ *   make run ARGS="--decode" < game.log
+ */
+public class RunLengthDecoder {
+
+    // the read buffer size
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    // the longest run length digits, the longer digits are not run
+    private static final int MAX_RUN_DIGITS = 9;
+
+    private RunLengthDecoder() {}
+
+    /**
+     * Decode the text
+     *
+     * @param text the run-length encoded text
+     *
+     * @return String the decoded text
+     */
+    public static String decode(String text) {
+
+        StringWriter out = new StringWriter(text.length());
+        try {
+            decode(new StringReader(text), out);
+        } catch (IOException e) {
+            // the string reader and writer do not throw
+            throw new IllegalStateException(e);
+        }
+
+        return out.toString();
+
+    }
+
+    /**
+     * Decode the text from the reader, write the decoded text to the
+     * writer
+     *
+     * @param in the run-length encoded text
+     * @param out the decoded text
+     *
+     * @throws IOException raise when read or write error
+     */
+    public static void decode(Reader in, Writer out) throws IOException {
+
+        char[] buffer = new char[BUFFER_SIZE];
+
+        // the last written character, the run's square
+        int last = -1;
+
+        // the run length digits, -1 when not in run
+        char[] digits = new char[MAX_RUN_DIGITS];
+        int digitCount = -1;
+
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+
+                char ch = buffer[i];
+
+                if (digitCount >= 0) {
+
+                    // the run length digit
+                    if (ch >= '0' && ch <= '9' && digitCount < MAX_RUN_DIGITS) {
+                        digits[digitCount++] = ch;
+                        continue;
+                    }
+
+                    // the run end, write the rest of run's squares
+                    if (ch == ConsoleView.RUN_END && digitCount > 0) {
+                        int run = Integer.parseInt(
+                                new String(digits, 0, digitCount));
+                        for (int n = 1; n < run; n++)
+                            out.write(last);
+                        digitCount = -1;
+                        continue;
+                    }
+
+                    // not a run, write the text as it is
+                    out.write(ConsoleView.RUN_START);
+                    out.write(digits, 0, digitCount);
+                    last = digitCount > 0
+                           ? digits[digitCount - 1]
+                           : ConsoleView.RUN_START;
+                    digitCount = -1;
+
+                }
+
+                // the run start after the square
+                if (ch == ConsoleView.RUN_START && last >= 0) {
+                    digitCount = 0;
+                    continue;
+                }
+
+                out.write(ch);
+                last = ch;
+
+            }
+        }
+
+        // the text ends in the run start
+        if (digitCount >= 0) {
+            out.write(ConsoleView.RUN_START);
+            out.write(digits, 0, digitCount);
+        }
+
+    }
+
+}
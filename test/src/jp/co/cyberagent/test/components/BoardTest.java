@@ -1,7 +1,7 @@
 package jp.co.cyberagent.test.components;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.*;
 
 import jp.co.cyberagent.components.*;
@@ -80,24 +80,22 @@ public class BoardTest {
             // ensure board's grid
             Field bGrid = Board.class.getDeclaredField("grid");
             bGrid.setAccessible(true);
-            Square[][] grid = (Square[][]) bGrid.get(board);
+            CellStore grid = (CellStore) bGrid.get(board);
 
             // ensure grid size
             // ensure grid's number of row
             assertEquals(
                     "Failure - Board's number of grid row is not equal 5",
                     5,
-                    grid.length
+                    grid.getHeight()
             );
 
             // ensure grid length of each row
-            for (Square[] gridRow : grid) {
-                assertEquals(
-                        "Failure - Length of row is not equal 15",
-                        15,
-                        gridRow.length
-                );
-            }
+            assertEquals(
+                    "Failure - Length of row is not equal 15",
+                    15,
+                    grid.getWidth()
+            );
 
             // ensure grid's squares
             // mine count
@@ -106,6 +104,9 @@ public class BoardTest {
             // count number of mine
             for (int r = 0; r < 5; r++) {
                 for (int c = 0; c < 15; c++) {
+                    // get square
+                    Square square = board.getSquare(r, c);
+
                     // ensure each square in grid is same with board's get square
                     assertEquals(
                             String.format(
@@ -115,11 +116,8 @@ public class BoardTest {
                                     r, c,
                                     r, c
                             ),
-                            board.getSquare(r, c),
-                            grid[r][c]);
-
-                    // get square
-                    Square square = grid[r][c];
+                            grid.isMine(grid.indexOf(r, c)),
+                            square instanceof MineSquare);
 
                     // update mine count when square is mine square
                     if (square instanceof MineSquare) {
@@ -195,6 +193,153 @@ public class BoardTest {
 
     }
 
+    /**
+     * Test create Board object: successfully case, the boards that created
+     * by same seed have same mine squares
+     */
+    @Test
+    public void testCreateBoardSuccessfullySameSeed() {
+
+        try {
+            Board board = new Board(9, 11, 20, BoardStorage.HEAP, 2015l);
+            Board sameBoard = new Board(9, 11, 20, BoardStorage.HEAP, 2015l);
+
+            // ensure board's seed
+            assertEquals(
+                    "Failure - Board's seed is not equal 2015",
+                    2015l,
+                    board.getSeed()
+            );
+
+            // ensure each square is same
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 11; c++) {
+                    assertEquals(
+                            String.format(
+                                    "Failure - Square at row %d, column %d " +
+                                            "is not same",
+                                    r,
+                                    c
+                            ),
+                            board.getSquare(r, c).getClass(),
+                            sameBoard.getSquare(r, c).getClass()
+                    );
+                }
+            }
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test create Board object: successfully case, the lazy boards that
+     * created by same seed have same squares, does not depend on the order
+     * of reading
+     */
+    @Test
+    public void testCreateBoardSuccessfullyLazyGeneration() {
+
+        try {
+            Board board = new Board(150, 200, 3000, BoardStorage.HEAP,
+                                    BoardGeneration.LAZY, 2015l);
+            Board sameBoard = new Board(150, 200, 3000, BoardStorage.HEAP,
+                                        BoardGeneration.LAZY, 2015l);
+
+            // read the same board from the last square
+            for (int r = 149; r >= 0; r--) {
+                for (int c = 199; c >= 0; c--) {
+                    sameBoard.getSquare(r, c);
+                }
+            }
+
+            // ensure each square is same, count number of mine
+            long mineCount = 0l;
+            for (int r = 0; r < 150; r++) {
+                for (int c = 0; c < 200; c++) {
+
+                    Square square = board.getSquare(r, c);
+                    Square sameSquare = sameBoard.getSquare(r, c);
+
+                    assertEquals(
+                            String.format(
+                                    "Failure - Square at row %d, column %d " +
+                                            "is not same",
+                                    r,
+                                    c
+                            ),
+                            square.getClass(),
+                            sameSquare.getClass()
+                    );
+
+                    if (square instanceof MineSquare) {
+                        ++mineCount;
+                    } else if (square instanceof NumberSquare) {
+                        assertEquals(
+                                String.format(
+                                        "Failure - Square's value at " +
+                                                "row %d, column %d " +
+                                                "is not same",
+                                        r,
+                                        c
+                                ),
+                                ((NumberSquare) square).getValue(),
+                                ((NumberSquare) sameSquare).getValue()
+                        );
+                    }
+
+                }
+            }
+
+            // ensure number of mine
+            assertEquals(
+                    "Failure - Board's number of mine is not equal 3000",
+                    3000l,
+                    mineCount
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test create Board object: successfully case, the dense board that
+     * have the maximum mine quantity
+     */
+    @Test
+    public void testCreateBoardSuccessfullyDenseMine() {
+
+        try {
+            Board board = new Board(200, 300, 200 * 300 - 1);
+
+            // count number of mine
+            long mineCount = 0l;
+            for (int r = 0; r < 200; r++) {
+                for (int c = 0; c < 300; c++) {
+                    if (board.getSquare(r, c) instanceof MineSquare)
+                        ++mineCount;
+                }
+            }
+
+            // ensure number of mine
+            assertEquals(
+                    "Failure - Board's number of mine is not equal 59999",
+                    59999l,
+                    mineCount
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
     /**
      * Test create Board object: failed case, height is out of bound
      */
@@ -368,6 +513,171 @@ public class BoardTest {
 
     }
 
+    /**
+     * Test create Board object with mapped storage: successfully case
+     */
+    @Test
+    public void testCreateBoardSuccessfullyMappedStorage() {
+
+        try {
+            Board board = new Board(8, 12, 10, BoardStorage.MAPPED);
+
+            // ensure board not null
+            assertNotNull("Failure - Board create fail, null object", board);
+
+            // ensure board's grid is mapped cell store
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            assertTrue(
+                    "Failure - Board's grid is not MappedCellStore instance",
+                    bGrid.get(board) instanceof MappedCellStore
+            );
+
+            // count number of mine
+            long mineCount = 0l;
+            int[] noMineIndex = null;
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 12; c++) {
+                    if (board.getSquare(r, c) instanceof MineSquare)
+                        ++mineCount;
+                    else if (noMineIndex == null)
+                        noMineIndex = new int[] {r, c};
+                }
+            }
+
+            // ensure number of mine
+            assertEquals(
+                    "Failure - Board's number of mine is not equal 10",
+                    10l,
+                    mineCount
+            );
+
+            // toggle square is mine check
+            Square square = board.toggleMineCheckSquare(
+                    noMineIndex[0], noMineIndex[1]);
+
+            // ensure square is mine checked
+            assertTrue(
+                    "Failure - After checked, the square is not check",
+                    square.isMineChecked()
+            );
+
+            // toggle square again, then open square
+            board.toggleMineCheckSquare(noMineIndex[0], noMineIndex[1]);
+            PlayStatus playStatus =
+                    board.openSquare(noMineIndex[0], noMineIndex[1]);
+
+            // ensure square is opened, game is not lose
+            assertTrue(
+                    "Failure - After open square, square is not open",
+                    square.isOpened()
+            );
+            assertNotEquals(
+                    "Failure - Open no mine square but play status is lose",
+                    PlayStatus.LOSE,
+                    playStatus
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test close Board object with mapped storage: successfully case,
+     * the mapped segments are dropped
+     */
+    @Test
+    public void testCloseBoardSuccessfullyMappedStorage() {
+
+        try {
+            Board board = new Board(8, 12, 10, BoardStorage.MAPPED);
+
+            // ensure the segments are mapped
+            Field sSegments = MappedCellStore.class.getDeclaredField("segments");
+            sSegments.setAccessible(true);
+            assertNotNull(
+                    "Failure - Mapped segments are null",
+                    sSegments.get(board.getCellStore())
+            );
+
+            // close board, close again is nothing
+            board.close();
+            board.close();
+
+            // ensure the segments are dropped
+            assertNull(
+                    "Failure - Mapped segments are not dropped",
+                    sSegments.get(board.getCellStore())
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test create Board object with chunked storage: successfully case,
+     * the chunks are allocated when the squares are read
+     */
+    @Test
+    public void testCreateBoardSuccessfullyChunkedStorage() {
+
+        try {
+            Board board = new Board(1000, 1000, 1000, BoardStorage.CHUNKED,
+                                    BoardGeneration.LAZY, 2015l);
+
+            // ensure board's cell store is chunked cell store
+            assertTrue(
+                    "Failure - Board's grid is not ChunkedCellStore instance",
+                    board.getCellStore() instanceof ChunkedCellStore
+            );
+            ChunkedCellStore store = (ChunkedCellStore) board.getCellStore();
+
+            // ensure no chunk is allocated after create board
+            assertEquals(
+                    "Failure - After create board, chunk is allocated",
+                    0,
+                    store.getAllocatedChunkCount()
+            );
+
+            // toggle square is mine check
+            Square square = board.toggleMineCheckSquare(500, 500);
+
+            // ensure square is mine checked
+            assertTrue(
+                    "Failure - After checked, the square is not check",
+                    square.isMineChecked()
+            );
+
+            // ensure the chunk of square is allocated
+            assertTrue(
+                    "Failure - The chunk of checked square is not allocated",
+                    store.isChunkAllocated(500 >> ChunkedCellStore.CHUNK_SHIFT,
+                                           500 >> ChunkedCellStore.CHUNK_SHIFT)
+            );
+
+            // ensure only the chunks around square are allocated
+            assertTrue(
+                    "Failure - The far chunks are allocated",
+                    store.getAllocatedChunkCount() <= 25
+            );
+            assertFalse(
+                    "Failure - The chunk at row 0, column 0 is allocated",
+                    store.isChunkAllocated(0, 0)
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
     /**
      * Test toggle square: successfully case
      */
@@ -974,6 +1284,134 @@ public class BoardTest {
 
     }
 
+    /**
+     * Test open square successfully. The checked squares in empty region
+     * are not opened
+     */
+    @Test
+    public void testOpenSquareSuccessfullySkipCheckedSquare() {
+
+        try {
+            // create board
+            Board board = new Board(8, 8, 10);
+
+            // set board
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, makeBoard());
+
+            // check two neighbour empty squares
+            board.toggleMineCheckSquare(1, 0);
+            board.toggleMineCheckSquare(1, 1);
+
+            // open the empty square at row 0, column 0
+            PlayStatus playStatus = board.openSquare(0, 0);
+
+            // ensure play status is normal
+            assertEquals(
+                    "Failure - Open empty square, play status is not normal",
+                    PlayStatus.NORMAL,
+                    playStatus
+            );
+
+            // ensure checked squares are not opened
+            assertFalse(
+                    "Failure - Checked square at row 1, column 0 is opened",
+                    board.getSquare(1, 0).isOpened());
+            assertFalse(
+                    "Failure - Checked square at row 1, column 1 is opened",
+                    board.getSquare(1, 1).isOpened());
+
+            // ensure the region behind the checked squares is opened
+            assertTrue(
+                    "Failure - Square at row 2, column 0 is not open",
+                    board.getSquare(2, 0).isOpened());
+            assertTrue(
+                    "Failure - Square at row 3, column 0 is not open",
+                    board.getSquare(3, 0).isOpened());
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Open empty square error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test open and toggle square successfully. The opened and mine checked
+     * counts are updated, the state can be copied to the snapshot
+     */
+    @Test
+    public void testOpenSquareSuccessfullyStateSnapshot() {
+
+        try {
+            // create board
+            Board board = new Board(8, 8, 10);
+
+            // set board
+            HeapCellStore grid = (HeapCellStore) makeBoard();
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, grid);
+
+            // open the empty square at row 0, column 7, toggle 2 squares
+            board.openSquare(0, 7);
+            board.toggleMineCheckSquare(1, 5);
+            board.toggleMineCheckSquare(7, 7);
+
+            // ensure opened and mine checked count
+            assertEquals(
+                    "Failure - Opened square count is not equal 6",
+                    6l,
+                    board.getOpenedCount()
+            );
+            assertEquals(
+                    "Failure - Mine checked square count is not equal 2",
+                    2l,
+                    board.getMineCheckedCount()
+            );
+
+            // copy the state to snapshot
+            HeapCellStore snapshot = new HeapCellStore(8, 8);
+            grid.copyStateTo(snapshot);
+
+            // ensure snapshot state is same with board's state
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+
+                    long index = grid.indexOf(r, c);
+
+                    assertEquals(
+                            String.format(
+                                    "Failure - Snapshot's square at row %d, " +
+                                            "column %d open state is wrong",
+                                    r,
+                                    c
+                            ),
+                            board.getSquare(r, c).isOpened(),
+                            snapshot.isOpened(index)
+                    );
+                    assertEquals(
+                            String.format(
+                                    "Failure - Snapshot's square at row %d, " +
+                                            "column %d check state is wrong",
+                                    r,
+                                    c
+                            ),
+                            board.getSquare(r, c).isMineChecked(),
+                            snapshot.isMineChecked(index)
+                    );
+
+                }
+            }
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - " + e.getMessage());
+        }
+
+    }
+
     /**
      * Test open square failed. The chosen square's index is out of bound
      */
@@ -1262,99 +1700,88 @@ public class BoardTest {
     /**
      * Create a specific game board
      */
-    private Square[][] makeBoard() {
-
-        Square[][] grid = new Square[8][8];
+    private CellStore makeBoard() {
 
         // first, create grid is empty square
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                grid[r][c] = createEmptySquare();
-            }
-        }
+        CellStore grid = createCellStore(8, 8);
 
         // put mine, 10 mine squares
-        grid[1][5] = createMineSquare();
-        grid[3][6] = createMineSquare();
-        grid[4][0] = createMineSquare();
-        grid[4][4] = createMineSquare();
-        grid[6][1] = createMineSquare();
-        grid[6][5] = createMineSquare();
-        grid[6][6] = createMineSquare();
-        grid[7][2] = createMineSquare();
-        grid[7][3] = createMineSquare();
-        grid[7][7] = createMineSquare();
+        setCell(grid, 1, 5, CellStore.MINE);
+        setCell(grid, 3, 6, CellStore.MINE);
+        setCell(grid, 4, 0, CellStore.MINE);
+        setCell(grid, 4, 4, CellStore.MINE);
+        setCell(grid, 6, 1, CellStore.MINE);
+        setCell(grid, 6, 5, CellStore.MINE);
+        setCell(grid, 6, 6, CellStore.MINE);
+        setCell(grid, 7, 2, CellStore.MINE);
+        setCell(grid, 7, 3, CellStore.MINE);
+        setCell(grid, 7, 7, CellStore.MINE);
 
         // put number square
-        grid[0][4] = createNumberSquare((byte) 1);
-        grid[0][5] = createNumberSquare((byte) 1);
-        grid[0][6] = createNumberSquare((byte) 1);
-
-        grid[1][4] = createNumberSquare((byte) 1);
-        grid[1][6] = createNumberSquare((byte) 1);
-
-        grid[2][4] = createNumberSquare((byte) 1);
-        grid[2][5] = createNumberSquare((byte) 2);
-        grid[2][6] = createNumberSquare((byte) 2);
-        grid[2][7] = createNumberSquare((byte) 1);
-
-        grid[3][0] = createNumberSquare((byte) 1);
-        grid[3][1] = createNumberSquare((byte) 1);
-        grid[3][3] = createNumberSquare((byte) 1);
-        grid[3][4] = createNumberSquare((byte) 1);
-        grid[3][5] = createNumberSquare((byte) 2);
-        grid[3][7] = createNumberSquare((byte) 1);
-
-        grid[4][1] = createNumberSquare((byte) 1);
-        grid[4][3] = createNumberSquare((byte) 1);
-        grid[4][5] = createNumberSquare((byte) 2);
-        grid[4][5] = createNumberSquare((byte) 2);
-        grid[4][6] = createNumberSquare((byte) 1);
-        grid[4][7] = createNumberSquare((byte) 1);
-
-        grid[5][0] = createNumberSquare((byte) 2);
-        grid[5][1] = createNumberSquare((byte) 2);
-        grid[5][2] = createNumberSquare((byte) 1);
-        grid[5][3] = createNumberSquare((byte) 1);
-        grid[5][4] = createNumberSquare((byte) 2);
-        grid[5][5] = createNumberSquare((byte) 3);
-        grid[5][6] = createNumberSquare((byte) 2);
-        grid[5][7] = createNumberSquare((byte) 1);
-
-        grid[6][0] = createNumberSquare((byte) 1);
-        grid[6][2] = createNumberSquare((byte) 3);
-        grid[6][3] = createNumberSquare((byte) 2);
-        grid[6][4] = createNumberSquare((byte) 2);
-        grid[6][7] = createNumberSquare((byte) 2);
-
-        grid[7][0] = createNumberSquare((byte) 1);
-        grid[7][1] = createNumberSquare((byte) 2);
-        grid[7][4] = createNumberSquare((byte) 2);
-        grid[7][5] = createNumberSquare((byte) 2);
-        grid[7][6] = createNumberSquare((byte) 3);
+        setCell(grid, 0, 4, (byte) 1);
+        setCell(grid, 0, 5, (byte) 1);
+        setCell(grid, 0, 6, (byte) 1);
+
+        setCell(grid, 1, 4, (byte) 1);
+        setCell(grid, 1, 6, (byte) 1);
+
+        setCell(grid, 2, 4, (byte) 1);
+        setCell(grid, 2, 5, (byte) 2);
+        setCell(grid, 2, 6, (byte) 2);
+        setCell(grid, 2, 7, (byte) 1);
+
+        setCell(grid, 3, 0, (byte) 1);
+        setCell(grid, 3, 1, (byte) 1);
+        setCell(grid, 3, 3, (byte) 1);
+        setCell(grid, 3, 4, (byte) 1);
+        setCell(grid, 3, 5, (byte) 2);
+        setCell(grid, 3, 7, (byte) 1);
+
+        setCell(grid, 4, 1, (byte) 1);
+        setCell(grid, 4, 3, (byte) 1);
+        setCell(grid, 4, 5, (byte) 2);
+        setCell(grid, 4, 5, (byte) 2);
+        setCell(grid, 4, 6, (byte) 1);
+        setCell(grid, 4, 7, (byte) 1);
+
+        setCell(grid, 5, 0, (byte) 2);
+        setCell(grid, 5, 1, (byte) 2);
+        setCell(grid, 5, 2, (byte) 1);
+        setCell(grid, 5, 3, (byte) 1);
+        setCell(grid, 5, 4, (byte) 2);
+        setCell(grid, 5, 5, (byte) 3);
+        setCell(grid, 5, 6, (byte) 2);
+        setCell(grid, 5, 7, (byte) 1);
+
+        setCell(grid, 6, 0, (byte) 1);
+        setCell(grid, 6, 2, (byte) 3);
+        setCell(grid, 6, 3, (byte) 2);
+        setCell(grid, 6, 4, (byte) 2);
+        setCell(grid, 6, 7, (byte) 2);
+
+        setCell(grid, 7, 0, (byte) 1);
+        setCell(grid, 7, 1, (byte) 2);
+        setCell(grid, 7, 4, (byte) 2);
+        setCell(grid, 7, 5, (byte) 2);
+        setCell(grid, 7, 6, (byte) 3);
 
         return grid;
 
     }
 
     /**
-     * Call to non public function, create a mine square
+     * Create a heap cell store
      */
-    private MineSquare createMineSquare() {
+    private CellStore createCellStore(int height, int width) {
 
         try {
-            // get MineSquare's constructor
-            Constructor<MineSquare> constructor =
-                    MineSquare.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-
-            // create new mine square object
-            return constructor.newInstance();
+            // create new cell store, all cells are empty square
+            return new HeapCellStore(height, width);
         } catch (Exception e) {
-            fail("Failure - Create mine square error " + e.getMessage());
+            fail("Failure - Create cell store error " + e.getMessage());
         }
 
-        // when square is not created successfully, test case not pass
+        // when store is not created successfully, test case not pass
         fail();
 
         return null;
@@ -1362,58 +1789,29 @@ public class BoardTest {
     }
 
     /**
-     * Call to non public function, create a empty square
+     * Call to non public function, set the packed cell
      */
-    private EmptySquare createEmptySquare() {
+    private void setCell(CellStore grid, int row, int col, byte cell) {
 
         try {
-            // get EmptySquare's constructor
-            Constructor<EmptySquare> constructor =
-                    EmptySquare.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
+            // get CellStore's set method
+            Method method = CellStore.class.getDeclaredMethod(
+                    "set", long.class, byte.class);
+            method.setAccessible(true);
 
-            // create new empty square object
-            return constructor.newInstance();
+            // set the packed cell
+            method.invoke(grid, grid.indexOf(row, col), cell);
         } catch (Exception e) {
-            fail("Failure - Create empty square error " + e.getMessage());
+            fail("Failure - Set cell error " + e.getMessage());
         }
 
-        // when square is not created successfully, test case not pass
-        fail();
-
-        return null;
-
-    }
-
-    /**
-     * Call to non public function, create a number square
-     */
-    private NumberSquare createNumberSquare(byte value) {
-
-        try {
-            // get NumberSquare constructor
-            Constructor<NumberSquare> constructor =
-                    NumberSquare.class.getDeclaredConstructor(byte.class);
-            constructor.setAccessible(true);
-
-            // create new number square object
-            return constructor.newInstance(value);
-        } catch (Exception e) {
-            fail("Failure - Create number square error " + e.getMessage());
-        }
-
-        // when square is not created successfully, test case not pass
-        fail();
-
-        return null;
-
     }
 
     /**
      * Count mine around a square
      */
     private byte countMineAroundSquare(
-            Square[][] grid,
+            CellStore grid,
             int row,
             int col,
             int maxHeight,
@@ -1424,7 +1822,7 @@ public class BoardTest {
 
         // check mine around square
         for (Direction dir : Direction.values()) {
-            Square neighbor = getNeighborSquare(
+            boolean isMine = isNeighborMine(
                     grid,
                     row,
                     col,
@@ -1434,7 +1832,7 @@ public class BoardTest {
             );
 
             // when square is mine square, update mine count
-            if (neighbor != null && neighbor instanceof MineSquare)
+            if (isMine)
                 count += 1;
         }
 
@@ -1443,10 +1841,10 @@ public class BoardTest {
     }
 
     /**
-     * Get the neighbour of square
+     * Check the neighbour of square is mine or not
      */
-    private Square getNeighborSquare(
-            Square[][] grid,
+    private boolean isNeighborMine(
+            CellStore grid,
             int row,
             int col,
             int maxHeight,
@@ -1487,13 +1885,13 @@ public class BoardTest {
         }
 
         // check is row and column out of bound
-        // if out of bound, return null
-        // otherwise return grid[row][column]
+        // if out of bound, return false
+        // otherwise return is grid[row][column] mine
         if (isInGridSizeBound(r, c, maxHeight, maxWidth)) {
-            // when square's index valid, return square
-            return grid[r][c];
+            // when square's index valid, return square is mine
+            return grid.isMine(grid.indexOf(r, c));
         } else {
-            return null;
+            return false;
         }
 
     }
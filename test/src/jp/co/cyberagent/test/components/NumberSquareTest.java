@@ -1,6 +1,8 @@
 package jp.co.cyberagent.test.components;
 
 
+import jp.co.cyberagent.components.CellStore;
+import jp.co.cyberagent.components.HeapCellStore;
 import jp.co.cyberagent.components.NumberSquare;
 import jp.co.cyberagent.components.exceptions.SquareWrongValueException;
 
@@ -24,11 +26,12 @@ public class NumberSquareTest {
         try {
             // get NumberSquare constructor
             Constructor<NumberSquare> constructor =
-                    NumberSquare.class.getDeclaredConstructor(byte.class);
+                    NumberSquare.class.getDeclaredConstructor(
+                            CellStore.class, long.class, byte.class);
             constructor.setAccessible(true);
 
             // create new number square object
-            numSquare = constructor.newInstance((byte) 1);
+            numSquare = constructor.newInstance(createCellStore(), 0l, (byte) 1);
 
             // ensure number square object create successfully
             assertNotNull(
@@ -67,11 +70,12 @@ public class NumberSquareTest {
         try {
             // get NumberSquare constructor
             Constructor<NumberSquare> constructor =
-                    NumberSquare.class.getDeclaredConstructor(byte.class);
+                    NumberSquare.class.getDeclaredConstructor(
+                            CellStore.class, long.class, byte.class);
             constructor.setAccessible(true);
 
             // create new number square object
-            constructor.newInstance((byte) 0);
+            constructor.newInstance(createCellStore(), 0l, (byte) 0);
 
             // test case not pass
             fail("Failure - Create number square with value " +
@@ -103,11 +107,12 @@ public class NumberSquareTest {
         try {
             // get NumberSquare constructor
             Constructor<NumberSquare> constructor =
-                    NumberSquare.class.getDeclaredConstructor(byte.class);
+                    NumberSquare.class.getDeclaredConstructor(
+                            CellStore.class, long.class, byte.class);
             constructor.setAccessible(true);
 
             // create new number square object
-            constructor.newInstance((byte) 9);
+            constructor.newInstance(createCellStore(), 0l, (byte) 9);
 
             // test case not pass
             fail("Failure - Create number square with value " +
@@ -138,4 +143,24 @@ public class NumberSquareTest {
         }
 
     }
+
+    /**
+     * Create a cell store that have one cell
+     */
+    private CellStore createCellStore() {
+
+        try {
+            // create new cell store, the cell is closed and unchecked
+            return new HeapCellStore(1, 1);
+        } catch (Exception e) {
+            fail("Failure - Create cell store error " + e.getMessage());
+        }
+
+        // when store is not created successfully, test case not pass
+        fail();
+
+        return null;
+
+    }
+
 }
@@ -1,14 +1,15 @@
 package jp.co.cyberagent.test.components;
 
+import jp.co.cyberagent.components.CellStore;
+import jp.co.cyberagent.components.EmptySquare;
+import jp.co.cyberagent.components.HeapCellStore;
 import jp.co.cyberagent.components.Square;
 import jp.co.cyberagent.components.exceptions.SquareCheckedException;
 import jp.co.cyberagent.components.exceptions.SquareOpenedException;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
-import org.mockito.Mockito;
-
-import java.lang.reflect.Field;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
@@ -16,13 +17,13 @@ import java.lang.reflect.Method;
 public class SquareTest {
 
     /**
-     * Test create Square's object (using mock)
+     * Test create Square's object (view of a new cell)
      */
     @Test
     public void testConstructor() {
 
-        // mock square object for test constructor
-        Square square = Mockito.mock(Square.class);
+        // create square object for test constructor
+        Square square = createSquare(createCellStore());
 
         // test square's object elements
         assertFalse(
@@ -42,8 +43,9 @@ public class SquareTest {
     @Test
     public void testOpenSquareSuccessfully() {
 
-        // mock square object
-        Square square = Mockito.mock(Square.class, Mockito.CALLS_REAL_METHODS);
+        // create square object
+        CellStore store = createCellStore();
+        Square square = createSquare(store);
 
         // ensure square is closed
         assertFalse(
@@ -78,8 +80,9 @@ public class SquareTest {
     @Test
     public void testOpenSquareFailedSquareOpened() {
 
-        // mock square object
-        Square square = Mockito.mock(Square.class, Mockito.CALLS_REAL_METHODS);
+        // create square object
+        CellStore store = createCellStore();
+        Square square = createSquare(store);
 
         // ensure square is closed
         assertFalse(
@@ -137,8 +140,9 @@ public class SquareTest {
     @Test
     public void testOpenSquareFailedSquareChecked() {
 
-        // mock square object
-        Square square = Mockito.mock(Square.class, Mockito.CALLS_REAL_METHODS);
+        // create square object
+        CellStore store = createCellStore();
+        Square square = createSquare(store);
 
         // ensure square is closed
         assertFalse(
@@ -155,9 +159,7 @@ public class SquareTest {
         // test square open method
         try {
             // set square is mine checked
-            Field field = Square.class.getDeclaredField("isMineChecked");
-            field.setAccessible(true);
-            field.set(square, true);
+            setCell(store, CellStore.MINE_CHECKED);
 
             // ensure square is checked
             assertTrue(
@@ -209,8 +211,9 @@ public class SquareTest {
     @Test
     public void testToggleMineCheckSuccessfully() {
 
-        // mock square object
-        Square square = Mockito.mock(Square.class, Mockito.CALLS_REAL_METHODS);
+        // create square object
+        CellStore store = createCellStore();
+        Square square = createSquare(store);
 
         // ensure square is not checked
         assertFalse(
@@ -255,8 +258,9 @@ public class SquareTest {
     @Test
     public void testToggleMineCheckFailedSquareOpened() {
 
-        // mock square object
-        Square square = Mockito.mock(Square.class, Mockito.CALLS_REAL_METHODS);
+        // create square object
+        CellStore store = createCellStore();
+        Square square = createSquare(store);
 
         // ensure square is not opened
         assertFalse(
@@ -271,9 +275,7 @@ public class SquareTest {
         // test square toggle square mine check method
         try {
             // set square opened
-            Field field = Square.class.getDeclaredField("isOpened");
-            field.setAccessible(true);
-            field.set(square, true);
+            setCell(store, CellStore.OPENED);
 
             // get square toggleMineCheck method
             Method method = Square.class.getDeclaredMethod("toggleMineCheck");
@@ -306,4 +308,65 @@ public class SquareTest {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a cell store that have one cell
+     */
+    private CellStore createCellStore() {
+
+        try {
+            // create new cell store, the cell is closed and unchecked
+            return new HeapCellStore(1, 1);
+        } catch (Exception e) {
+            fail("Failure - Create cell store error " + e.getMessage());
+        }
+
+        // when store is not created successfully, test case not pass
+        fail();
+
+        return null;
+
+    }
+
+    /**
+     * Call to non public function, create the square view of the cell
+     */
+    private Square createSquare(CellStore store) {
+
+        try {
+            // get EmptySquare's constructor
+            Constructor<EmptySquare> constructor =
+                    EmptySquare.class.getDeclaredConstructor(
+                            CellStore.class, long.class);
+            constructor.setAccessible(true);
+
+            // create new empty square object
+            return constructor.newInstance(store, 0l);
+        } catch (Exception e) {
+            fail("Failure - Create square error " + e.getMessage());
+        }
+
+        // when square is not created successfully, test case not pass
+        fail();
+
+        return null;
+
+    }
+
+    /**
+     * Call to non public function, set the packed cell
+     */
+    private void setCell(CellStore store, byte cell)
+            throws ReflectiveOperationException {
+
+        // get CellStore's set method
+        Method method = CellStore.class.getDeclaredMethod(
+                "set", long.class, byte.class);
+        method.setAccessible(true);
+
+        // set the packed cell
+        method.invoke(store, 0l, cell);
+
+    }
+
+}
@@ -4,16 +4,19 @@ import jp.co.cyberagent.components.Board;
 import jp.co.cyberagent.components.PlayStatus;
 import jp.co.cyberagent.components.exceptions.BoardCreateUnable;
 import jp.co.cyberagent.logic.ConsoleGameController;
-import jp.co.cyberagent.logic.exceptions.ConsoleControllerException;
 import jp.co.cyberagent.ui.ConsoleView;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -21,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Created by phucnh on 15/01/17.
@@ -161,6 +165,48 @@ public class ConsoleGameControllerTest {
 
     }
 
+    /**
+     * Test create new game successfully,
+     * the replaced board is closed
+     */
+    @Test
+    public void testCreateNewGameSuccessfullyCloseOldBoard() {
+
+        try {
+
+            // create the game controller with the old board
+            ConsoleGameController controller = new ConsoleGameController();
+            Board oldBoard = spy(new Board());
+            controller.setBoard(oldBoard);
+
+            // prepare settings for create new game
+            HashMap<String, String> settings = new HashMap<String, String>();
+            settings.put("height", "15");
+            settings.put("width", "25");
+            settings.put("mine_quantity", "15");
+
+            // run create new game
+            Method createNewGame = ConsoleGameController
+                    .class
+                    .getDeclaredMethod("createNewGame", Map.class);
+            createNewGame.setAccessible(true);
+            createNewGame.invoke(controller, settings);
+
+            // ensure the board is replaced, the old board is closed
+            assertNotSame(
+                    "Failure - Board is not replaced",
+                    oldBoard,
+                    controller.getBoard()
+            );
+            verify(oldBoard).close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Create new game error " + e.getMessage());
+        }
+
+    }
+
     /**
      * Test create new game failed,
      * height and width out of bound
@@ -320,6 +366,23 @@ public class ConsoleGameControllerTest {
 
         }
 
+    }
+
+    /**
+     * Test create new game successfully, the board is wider than
+     * 26 columns, the console view displays the multi letters column index
+     */
+    @Test
+    public void testCreateNewGameSuccessfullyWideBoard() {
+
+        // create the game controller
+        ConsoleGameController controller = new ConsoleGameController();
+
+        // ensure controller not null
+        assertNotNull(
+                "Failure - Controller create fail, null object",
+                controller);
+
         // create new game with settings width is 27
         try {
 
@@ -338,30 +401,18 @@ public class ConsoleGameControllerTest {
             // run create new game
             createNewGame.invoke(controller, settings);
 
-            // test case not pass
-            fail("Failure - Create new game with width 27 " +
-                    "not throw exception");
-
-        } catch (Exception e) {
-
-            // ensure exception is InvocationTargetException
-            assertTrue(e instanceof InvocationTargetException);
-            InvocationTargetException itEx = (InvocationTargetException) e;
-            Throwable targetEx = itEx.getTargetException();
-
-            // ensure target is instance of ConsoleControllerException
-            assertTrue(
-                    "Failure - The exception is not ConsoleControllerException",
-                    targetEx instanceof ConsoleControllerException);
-
-            // ensure exception message
+            // ensure board's width
             assertEquals(
-                    "Failure - Create new game with width is 27 message wrong",
-                    "In console mode, board width " +
-                            "must less than or equal 26 columns",
-                    targetEx.getMessage()
+                    "Failure - Create new game with width 27, " +
+                            "board's width is not 27",
+                    27,
+                    controller.getBoard().getSize()[1]
             );
 
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Create new game with width 27 error " +
+                    e.getMessage());
         }
 
     }
@@ -778,7 +829,7 @@ public class ConsoleGameControllerTest {
      * Input 0 for exit choose square
      * Input match with "^[a-z]\d+$" for chosen square
      * Example:
-     *  Valid: 0, a1, b10...
+     *  Valid: 0, a1, b10, aa10, <, >, ^, v...
      *  Invalid: 1, a, $, ?a10
      */
     @Test
@@ -829,6 +880,20 @@ public class ConsoleGameControllerTest {
                     validateChosenSquareInput.invoke(controller, "b10")
             );
 
+            // test validate chosen square input, input aa10
+            assertEquals(
+                    "Failure - Input aa10, but not valid",
+                    true,
+                    validateChosenSquareInput.invoke(controller, "aa10")
+            );
+
+            // test validate chosen square input, input < (scroll left)
+            assertEquals(
+                    "Failure - Input <, but not valid",
+                    true,
+                    validateChosenSquareInput.invoke(controller, "<")
+            );
+
         } catch (Exception e) {
             // test case not pass
             fail("Failure - Validate error " + e.getMessage());
@@ -1523,6 +1588,109 @@ public class ConsoleGameControllerTest {
 
     }
 
+    /**
+     * Test play with the typed inputs.
+     * When the next input is typed already, the moves are played without
+     * displaying the board, the board is displayed once when the game is
+     * left
+     */
+    @Test
+    public void testPlayCoalescedMoves() {
+
+        try {
+
+            // 3 moves are typed before the game displays the board
+            StringWriter writer = new StringWriter();
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new StringReader(
+                            "2\n3\n3\n1\nx a1\nx b2\nx c0\n0\n0\n")),
+                    new BufferedWriter(writer)
+            );
+            ConsoleGameController controller = new ConsoleGameController(view);
+            controller.run();
+
+            // ensure the moves are played and coalesced
+            assertEquals(
+                    "Failure - Played move count is not 3",
+                    3l,
+                    controller.getPlayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Coalesced move count is not 3",
+                    3l,
+                    controller.getCoalescedMoveCount()
+            );
+
+            // ensure the board is displayed for new game and for leaving,
+            // with all moves
+            String output = writer.toString();
+            assertEquals(
+                    "Failure - Board is not displayed twice",
+                    2,
+                    output.split("  abc").length - 1
+            );
+            assertTrue(
+                    "Failure - Last board is wrong",
+                    output.contains("  abc\n0 ??x\n1 x??\n2 ?x?\n")
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play with the typed inputs.
+     * When the typed inputs run out at the square mode prompt, the
+     * coalesced moves are displayed before the prompt
+     */
+    @Test(timeout = 5000)
+    public void testPlayCoalescedMovesBeforeModePrompt() {
+
+        try {
+
+            // the reader has no more input after the read lines
+            StringWriter writer = new StringWriter();
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new StringReader(
+                            "2\n3\n3\n1\nx a1\nc2\n") {
+                        @Override
+                        public boolean ready() {
+                            return false;
+                        }
+                    }),
+                    new BufferedWriter(writer)
+            );
+            ConsoleGameController controller = new ConsoleGameController(view);
+            controller.run();
+
+            // ensure the move is coalesced, then displayed before the
+            // square mode prompt
+            assertEquals(
+                    "Failure - Coalesced move count is not 1",
+                    1l,
+                    controller.getCoalescedMoveCount()
+            );
+            String output = writer.toString();
+            int board = output.indexOf("  abc\n0 ???\n1 x??\n2 ???\n");
+            int prompt = output.indexOf(
+                    "Please, choose open (o) or toggle mine checked (x)");
+            assertTrue("Failure - Board is not displayed", board >= 0);
+            assertTrue("Failure - Mode is not prompted", prompt >= 0);
+            assertTrue(
+                    "Failure - Board is displayed after the prompt",
+                    board < prompt
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
     private ConsoleGameController createTheController() {
 
         // create the game board
@@ -0,0 +1,217 @@
+package jp.co.cyberagent.test.logic;
+
+import jp.co.cyberagent.logic.MoveParser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveParserTest {
+
+    /**
+     * Test parse square: successful case
+     * The column index and row number are packed in the move
+     * Example: a1, b10, z0, aa10, zz3, aaa0
+     */
+    @Test
+    public void testParseSquareSuccessfully() {
+
+        String[] inputs = {"a1", "b10", "z0", "aa10", "zz3", "aaa0"};
+        int[] rows = {1, 10, 0, 10, 3, 0};
+        int[] cols = {0, 1, 25, 26, 701, 702};
+
+        for (int i = 0; i < inputs.length; i++) {
+
+            long move = MoveParser.parseSquare(inputs[i]);
+
+            assertEquals(
+                    "Failure - Input " + inputs[i] + " is not square",
+                    MoveParser.KIND_SQUARE,
+                    MoveParser.getKind(move)
+            );
+            assertEquals(
+                    "Failure - Input " + inputs[i] + " row is wrong",
+                    rows[i],
+                    MoveParser.getRow(move)
+            );
+            assertEquals(
+                    "Failure - Input " + inputs[i] + " column is wrong",
+                    cols[i],
+                    MoveParser.getColumn(move)
+            );
+            assertEquals(
+                    "Failure - Input " + inputs[i] + " mode is chosen",
+                    MoveParser.MODE_NONE,
+                    MoveParser.getMode(move)
+            );
+
+        }
+
+        // ensure the exit and scroll input
+        assertEquals(
+                "Failure - Input 0 is not exit",
+                MoveParser.KIND_EXIT,
+                MoveParser.getKind(MoveParser.parseSquare("0"))
+        );
+        long pan = MoveParser.parseSquare("^");
+        assertEquals(
+                "Failure - Input ^ is not scroll",
+                MoveParser.KIND_PAN,
+                MoveParser.getKind(pan)
+        );
+        assertEquals(
+                "Failure - Input ^ scroll is wrong",
+                '^',
+                MoveParser.getPan(pan)
+        );
+
+        // ensure the too large index is saturated, then out of board
+        long large = MoveParser.parseSquare("zzzzzzzz99999999999");
+        assertEquals(
+                "Failure - Large row is not saturated",
+                MoveParser.MAX_INDEX,
+                MoveParser.getRow(large)
+        );
+        assertEquals(
+                "Failure - Large column is not saturated",
+                MoveParser.MAX_INDEX,
+                MoveParser.getColumn(large)
+        );
+
+        // ensure the mode
+        long move = MoveParser.withMode(
+                MoveParser.parseSquare("c7"),
+                MoveParser.parseMode("x"));
+        assertEquals(
+                "Failure - Mode is wrong",
+                MoveParser.MODE_CHECK,
+                MoveParser.getMode(move)
+        );
+        assertEquals(
+                "Failure - Row is changed by mode",
+                7,
+                MoveParser.getRow(move)
+        );
+
+    }
+
+    /**
+     * Test parse square: failed case
+     * Example: empty, 1, a, $, ?a10, a1b, 00, A1
+     */
+    @Test
+    public void testParseSquareFailed() {
+
+        String[] inputs = {"", "1", "a", "$", "?a10", "a1b", "00", "A1", "<<"};
+
+        for (String input : inputs)
+            assertEquals(
+                    "Failure - Input " + input + ", but valid",
+                    MoveParser.INVALID,
+                    MoveParser.parseSquare(input)
+            );
+
+        // ensure the wrong mode
+        String[] modes = {"", "O", "ox", "a"};
+        for (String mode : modes)
+            assertEquals(
+                    "Failure - Mode " + mode + ", but valid",
+                    MoveParser.MODE_NONE,
+                    MoveParser.parseMode(mode)
+            );
+
+    }
+
+    /**
+     * Test parse line: successful case
+     * The moves with the square mode are separated by ';', the only
+     * square can be without the square mode
+     * Example: o b12;x c3;>, " x  a1 ; 0 ", b12, o b12
+     */
+    @Test
+    public void testParseLineSuccessfully() {
+
+        String input = "o b12;x c3;>";
+        long[] moves = new long[MoveParser.countMoves(input)];
+
+        assertEquals(
+                "Failure - Move count is wrong",
+                3,
+                MoveParser.parseLine(input, moves)
+        );
+        assertEquals(
+                "Failure - First move is wrong",
+                MoveParser.square(12, 1, MoveParser.MODE_OPEN),
+                moves[0]
+        );
+        assertEquals(
+                "Failure - Second move is wrong",
+                MoveParser.square(3, 2, MoveParser.MODE_CHECK),
+                moves[1]
+        );
+        assertEquals(
+                "Failure - Third move is not scroll",
+                MoveParser.KIND_PAN,
+                MoveParser.getKind(moves[2])
+        );
+
+        // ensure the white space and empty move are skipped
+        input = " x  a1 ; 0 ;";
+        moves = new long[MoveParser.countMoves(input)];
+        assertEquals(
+                "Failure - Move count is wrong",
+                2,
+                MoveParser.parseLine(input, moves)
+        );
+        assertEquals(
+                "Failure - First move is wrong",
+                MoveParser.square(1, 0, MoveParser.MODE_CHECK),
+                moves[0]
+        );
+        assertEquals(
+                "Failure - Second move is not exit",
+                MoveParser.KIND_EXIT,
+                MoveParser.getKind(moves[1])
+        );
+
+        // ensure the only square with or without mode
+        moves = new long[1];
+        assertEquals(
+                "Failure - Square without mode is not valid",
+                1,
+                MoveParser.parseLine("b12", moves)
+        );
+        assertEquals(
+                "Failure - Square mode is chosen",
+                MoveParser.MODE_NONE,
+                MoveParser.getMode(moves[0])
+        );
+        assertEquals(
+                "Failure - Square with mode is not valid",
+                1,
+                MoveParser.parseLine("o b12", moves)
+        );
+
+    }
+
+    /**
+     * Test parse line: failed case
+     * Example: b12;x c3 (square without mode), o b12;? (wrong move),
+     * ; (no move), o 0 (mode of not square), z b1 (wrong mode)
+     */
+    @Test
+    public void testParseLineFailed() {
+
+        String[] inputs = {"b12;x c3", "o b12;?", ";", " ", "o 0", "z b1", "o"};
+
+        for (String input : inputs)
+            assertEquals(
+                    "Failure - Input " + input + ", but valid",
+                    -1,
+                    MoveParser.parseLine(
+                            input, new long[MoveParser.countMoves(input)])
+            );
+
+    }
+
+}
@@ -0,0 +1,372 @@
+package jp.co.cyberagent.test.view;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.exceptions.BoardException;
+import jp.co.cyberagent.logic.ConsoleGameController;
+import jp.co.cyberagent.ui.AsyncGameView;
+import jp.co.cyberagent.ui.GameView;
+import jp.co.cyberagent.ui.HeadlessGameView;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncGameViewTest {
+
+    /**
+     * Test display chosen square: successful case
+     * The frames that are published while the renderer is displaying
+     * are skipped, the latest frame is displayed
+     */
+    @Test
+    public void testDisplayChosenSquareSuccessfullyLatestWins() {
+
+        try {
+
+            // create the view, the first frame waits for the release
+            RecordView recordView = new RecordView();
+            AsyncGameView view = new AsyncGameView(recordView);
+            Board board = new Board(8, 8, 10);
+
+            // publish the first frame, wait until it is displaying
+            view.displayBoard(board);
+            assertTrue(
+                    "Failure - The first frame is not displayed",
+                    recordView.started.await(5, TimeUnit.SECONDS)
+            );
+
+            // publish 100 frames while the first frame is displaying
+            for (int i = 0; i < 100; i++)
+                view.displayChosenSquare(board, i % 8, i / 8 % 8);
+
+            // release the first frame, wait for the latest frame
+            recordView.release.countDown();
+            view.awaitFrames();
+
+            // ensure the skipped frames
+            assertEquals(
+                    "Failure - Published frame count is not 101",
+                    101l,
+                    view.getPublishedFrameCount()
+            );
+            assertEquals(
+                    "Failure - Rendered frame count is not 2",
+                    2l,
+                    view.getRenderedFrameCount()
+            );
+
+            // ensure the latest frame is displayed
+            assertEquals(
+                    "Failure - The displayed frames are wrong",
+                    "board, square 3 4",
+                    join(recordView.calls)
+            );
+
+            view.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display chosen square error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test on win: successful case
+     * The win message is displayed after the published frame
+     */
+    @Test
+    public void testOnWinSuccessfullyAfterFrame() {
+
+        try {
+
+            // create the view, the first frame waits for the release
+            final RecordView recordView = new RecordView();
+            AsyncGameView view = new AsyncGameView(recordView);
+            Board board = new Board(8, 8, 10);
+
+            // publish the frame, release it from the other thread
+            view.displayBoard(board);
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    recordView.release.countDown();
+                }
+            }).start();
+
+            // display the win message
+            view.onWin();
+
+            // ensure the win message is after the frame
+            assertEquals(
+                    "Failure - The win message is displayed before the frame",
+                    "board, win",
+                    join(recordView.calls)
+            );
+
+            view.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - On win error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test choose square: successful case
+     * With prompt after frame, the prompt is written after the published
+     * frame
+     */
+    @Test
+    public void testChooseSquareSuccessfullyPromptAfterFrame() {
+
+        try {
+
+            // create the view, the first frame waits for the release
+            final RecordView recordView = new RecordView();
+            AsyncGameView view = new AsyncGameView(recordView);
+            view.setPromptAfterFrame(true);
+            Board board = new Board(8, 8, 10);
+
+            // publish the frame, release it from the other thread
+            view.displayChosenSquare(board, 1, 2);
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    recordView.release.countDown();
+                }
+            }).start();
+
+            // prompt the square and the mode
+            view.chooseSquare();
+            view.chooseSquareMode();
+
+            // ensure the prompts are after the frame
+            assertEquals(
+                    "Failure - The prompt is written before the frame",
+                    "square 1 2, choose square, choose square mode",
+                    join(recordView.calls)
+            );
+
+            view.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Choose square error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test on win: successful case
+     * The final frame only view does not display the published frames
+     * until the win message, then displays the latest frame immediately
+     */
+    @Test
+    public void testOnWinSuccessfullyFinalFrameOnly() {
+
+        try {
+
+            // create the view, the frames are not waited for the release
+            RecordView recordView = new RecordView();
+            recordView.release.countDown();
+            AsyncGameView view = new AsyncGameView(
+                    recordView, AsyncGameView.FINAL_FRAME_ONLY);
+            Board board = new Board(8, 8, 10);
+
+            // publish 50 frames, the frames are not displayed
+            view.displayBoard(board);
+            for (int i = 0; i < 49; i++)
+                view.displayChosenSquare(board, i % 8, i / 8 % 8);
+            Thread.sleep(100);
+
+            assertEquals(
+                    "Failure - The frame is displayed before the win",
+                    0l,
+                    view.getRenderedFrameCount()
+            );
+
+            // display the win message
+            view.onWin();
+
+            // ensure the latest frame is displayed once, before the win
+            assertEquals(
+                    "Failure - Rendered frame count is not 1",
+                    1l,
+                    view.getRenderedFrameCount()
+            );
+            assertEquals(
+                    "Failure - The displayed frames are wrong",
+                    "board, win",
+                    join(recordView.calls)
+            );
+
+            view.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - On win error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test close: successful case
+     * With the final frame only rate, the game that ends by the end of
+     * input is not waited for, the final frame is displayed by close
+     */
+    @Test(timeout = 5000)
+    public void testCloseSuccessfullyFinalFrameAfterEndInput() {
+
+        try {
+
+            // the inputs end without exit
+            HeadlessGameView headlessView = new HeadlessGameView(
+                    new String[] {"2", "5", "5", "5", "x a1", "x b2"});
+            AsyncGameView view = new AsyncGameView(
+                    headlessView, AsyncGameView.FINAL_FRAME_ONLY);
+
+            ConsoleGameController controller =
+                    new ConsoleGameController(view, 3l);
+            try {
+                controller.run();
+            } finally {
+                view.close();
+            }
+
+            // ensure the final frame is displayed once, with the last move
+            assertEquals(
+                    "Failure - Rendered frame count is not 1",
+                    1l,
+                    view.getRenderedFrameCount()
+            );
+            assertSame(
+                    "Failure - The final board is not displayed",
+                    controller.getBoard(),
+                    headlessView.getLastBoard()
+            );
+            assertEquals(
+                    "Failure - Mine checked count is not 2",
+                    2l,
+                    headlessView.getLastBoard().getMineCheckedCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Close error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Join the calls
+     */
+    private static String join(List<String> calls) {
+
+        StringBuilder joined = new StringBuilder();
+        for (String call : calls) {
+            if (joined.length() > 0)
+                joined.append(", ");
+            joined.append(call);
+        }
+
+        return joined.toString();
+
+    }
+
+    /**
+     * The view that records the calls, the first frame waits for the
+     * release
+     */
+    private static class RecordView extends GameView {
+
+        // the first frame is started, the first frame is released
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        // the calls
+        final List<String> calls =
+                Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void displayBoard(Board board)
+                throws IOException, BoardException {
+            waitRelease();
+            calls.add("board");
+        }
+
+        @Override
+        public void displayChosenSquare(Board board, int row, int col)
+                throws IOException, BoardException {
+            waitRelease();
+            calls.add("square " + row + " " + col);
+        }
+
+        @Override
+        public String mainMenu() {
+            return null;
+        }
+
+        @Override
+        public Map<String, String> gameSetting() {
+            return null;
+        }
+
+        @Override
+        public void onWin() {
+            calls.add("win");
+        }
+
+        @Override
+        public void onLose() {
+            calls.add("lose");
+        }
+
+        @Override
+        public Object chooseSquare() {
+            calls.add("choose square");
+            return null;
+        }
+
+        @Override
+        public void showMessage(String message, String type) {
+            calls.add("message " + message);
+        }
+
+        @Override
+        public Object chooseSquareMode() {
+            calls.add("choose square mode");
+            return null;
+        }
+
+        private void waitRelease() throws IOException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException("Interrupted");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,218 @@
+package jp.co.cyberagent.test.view;
+
+import jp.co.cyberagent.components.Board;
+import jp.co.cyberagent.components.BoardGeneration;
+import jp.co.cyberagent.components.BoardStorage;
+import jp.co.cyberagent.ui.BinaryFrameView;
+import jp.co.cyberagent.ui.HeadlessGameView;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.*;
+
+public class BinaryFrameViewTest {
+
+    /**
+     * Test display board: successful case
+     * The whole board frame, the changed squares frame and the win frame
+     * are written in order
+     */
+    @Test
+    public void testDisplayBoardSuccessfully() {
+
+        try {
+
+            // create the view that writes to the memory
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            HeadlessGameView headless = new HeadlessGameView(new String[0]);
+            BinaryFrameView view = new BinaryFrameView(
+                    headless, Channels.newChannel(output));
+
+            // check a0, display the board
+            Board board = new Board(3, 5, 1);
+            board.toggleMineCheckSquare(0, 0);
+            view.displayBoard(board);
+
+            // check b1 twice and c2 once, display the chosen square
+            board.toggleMineCheckSquare(1, 1);
+            board.toggleMineCheckSquare(1, 1);
+            board.toggleMineCheckSquare(2, 2);
+            view.displayChosenSquare(board, 2, 2);
+
+            view.onWin();
+
+            ByteBuffer frames = ByteBuffer.wrap(output.toByteArray());
+
+            // ensure the whole board frame, 15 squares in 8 bytes
+            assertHeader(frames, BinaryFrameView.FRAME_BOARD, 0, 3, 5);
+            assertEquals(
+                    "Failure - The checked square is wrong",
+                    (byte) ((BinaryFrameView.CODE_MINE_CHECKED << 4)
+                            | BinaryFrameView.CODE_CLOSED),
+                    frames.get()
+            );
+            for (int i = 1; i < 8; i++)
+                assertEquals(
+                        "Failure - The closed square is wrong",
+                        (byte) ((BinaryFrameView.CODE_CLOSED << 4)
+                                | (i < 7 ? BinaryFrameView.CODE_CLOSED : 0)),
+                        frames.get()
+                );
+
+            // ensure the changed squares frame, b1 is written once
+            assertHeader(frames, BinaryFrameView.FRAME_CHANGES, 1, 3, 5);
+            assertEquals("Failure - Change count is wrong", 2, frames.getInt());
+            assertChange(frames, 1, 1, BinaryFrameView.CODE_CLOSED);
+            assertChange(frames, 2, 2, BinaryFrameView.CODE_MINE_CHECKED);
+
+            // ensure the win frame
+            assertHeader(frames, BinaryFrameView.FRAME_WIN, 2, 3, 5);
+            assertFalse("Failure - Frames are too long", frames.hasRemaining());
+
+            // ensure the wrapped view displays the board
+            assertEquals(
+                    "Failure - Wrapped view is not displayed",
+                    1l,
+                    headless.getDisplayedMoveCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test pan board: successful case
+     * The changed squares that are not displayed yet (the moves before
+     * the scroll in one line) are written before the scroll
+     */
+    @Test
+    public void testPanBoardSuccessfullyWriteChanges() {
+
+        try {
+
+            // create the view that writes to the memory
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            HeadlessGameView headless = new HeadlessGameView(new String[0]);
+            BinaryFrameView view = new BinaryFrameView(
+                    headless, Channels.newChannel(output));
+
+            Board board = new Board(3, 5, 1);
+            view.displayBoard(board);
+
+            // check b2 and c3 without display, then scroll
+            board.toggleMineCheckSquare(2, 1);
+            board.toggleMineCheckSquare(2, 2);
+            view.panBoard(board, 0, 1);
+
+            // the scroll without changes writes nothing
+            view.panBoard(board, 0, -1);
+
+            ByteBuffer frames = ByteBuffer.wrap(output.toByteArray());
+
+            // skip the whole board frame, 15 squares in 8 bytes
+            assertHeader(frames, BinaryFrameView.FRAME_BOARD, 0, 3, 5);
+            frames.position(frames.position() + 8);
+
+            // ensure the changed squares frame
+            assertHeader(frames, BinaryFrameView.FRAME_CHANGES, 1, 3, 5);
+            assertEquals("Failure - Change count is wrong", 2, frames.getInt());
+            assertChange(frames, 2, 1, BinaryFrameView.CODE_MINE_CHECKED);
+            assertChange(frames, 2, 2, BinaryFrameView.CODE_MINE_CHECKED);
+            assertFalse("Failure - Frames are too long", frames.hasRemaining());
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Pan board error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test display board: successful case
+     * The board that is larger than the maximum recorded board is not
+     * written, the warning is shown once, the wrapped view displays it
+     */
+    @Test
+    public void testDisplayBoardSuccessfullyTooLarge() {
+
+        try {
+
+            // create the view that writes to the memory
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            HeadlessGameView headless = new HeadlessGameView(new String[0]);
+            BinaryFrameView view = new BinaryFrameView(
+                    headless, Channels.newChannel(output));
+
+            // the lazy board that has more squares than the maximum
+            Board board = new Board(5000, 5000, 10,
+                                    BoardStorage.CHUNKED,
+                                    BoardGeneration.LAZY,
+                                    42l);
+            view.displayBoard(board);
+            board.toggleMineCheckSquare(1, 1);
+            view.displayChosenSquare(board, 1, 1);
+            view.onLose();
+
+            // ensure nothing is written, the warning is shown once
+            assertEquals("Failure - Frames are written", 0, output.size());
+            assertEquals(
+                    "Failure - Frame count is not 0", 0l, view.getFrameCount()
+            );
+            assertEquals(
+                    "Failure - Warning count is not 1",
+                    1l,
+                    headless.getMessageCount()
+            );
+            assertEquals(
+                    "Failure - Wrapped view is not displayed",
+                    1l,
+                    headless.getDisplayedMoveCount()
+            );
+
+            // ensure the next small board is written
+            view.displayBoard(new Board(3, 3, 1));
+            assertEquals(
+                    "Failure - Frame count is not 1", 1l, view.getFrameCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Ensure the frame header
+     */
+    private static void assertHeader(ByteBuffer frames,
+                                     byte type,
+                                     long sequence,
+                                     int rows,
+                                     int cols) {
+        assertEquals("Failure - Frame type is wrong", type, frames.get());
+        assertEquals("Failure - Sequence is wrong", sequence, frames.getLong());
+        assertEquals("Failure - Rows is wrong", rows, frames.getInt());
+        assertEquals("Failure - Columns is wrong", cols, frames.getInt());
+    }
+
+    /**
+     * Ensure the changed square
+     */
+    private static void assertChange(ByteBuffer frames,
+                                     int row,
+                                     int col,
+                                     byte code) {
+        assertEquals("Failure - Row is wrong", row, frames.getInt());
+        assertEquals("Failure - Column is wrong", col, frames.getInt());
+        assertEquals("Failure - Code is wrong", code, frames.get());
+    }
+
+}
@@ -0,0 +1,192 @@
+package jp.co.cyberagent.test.view;
+
+import jp.co.cyberagent.logic.ConsoleGameController;
+import jp.co.cyberagent.ui.ChannelInput;
+import jp.co.cyberagent.ui.ConsoleView;
+import jp.co.cyberagent.ui.RenderMode;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ChannelInputTest {
+
+    /**
+     * Test read line: successful case
+     * The bytes are decoded to the commands by line, the last line without
+     * line separator is the last command, then the input is end
+     */
+    @Test
+    public void testReadLineSuccessfully() {
+
+        try {
+
+            // write the inputs to the pipe, the multi-byte character is
+            // split between two writes
+            Pipe pipe = Pipe.open();
+            ChannelInput input =
+                    new ChannelInput(pipe.source(), StandardCharsets.UTF_8);
+            byte[] bytes = "2\r\n5\n\u00e95\no b2".getBytes(StandardCharsets.UTF_8);
+            pipe.sink().write(ByteBuffer.wrap(bytes, 0, 6));
+
+            // ensure the ended lines only
+            assertEquals("Failure - First command is wrong", "2", input.readLine());
+            assertEquals("Failure - Second command is wrong", "5", input.readLine());
+            assertNull("Failure - Line is not ended", input.poll());
+
+            pipe.sink().write(ByteBuffer.wrap(bytes, 6, bytes.length - 6));
+            pipe.sink().close();
+
+            // ensure the split character and the last line
+            assertEquals("Failure - Third command is wrong", "\u00e95", input.readLine());
+            assertEquals("Failure - Last command is wrong", "o b2", input.readLine());
+            assertNull("Failure - Input is not end", input.readLine());
+            assertTrue("Failure - Input is not end", input.isEnd());
+
+            input.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Read line error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test read line: successful case
+     * The input stream is decoded by the platform charset by default, so
+     * the commands are same as the lines of the blocking reader
+     */
+    @Test
+    public void testReadLineSuccessfullySameAsBlockingReader() {
+
+        try {
+
+            // the non-ASCII and the malformed bytes
+            byte[] bytes = "2\n\u00e95\no b2\n".getBytes(StandardCharsets.UTF_8);
+            bytes = Arrays.copyOf(bytes, bytes.length + 2);
+            bytes[bytes.length - 2] = (byte) 0xC3;
+            bytes[bytes.length - 1] = '\n';
+
+            ChannelInput input =
+                    ChannelInput.open(new ByteArrayInputStream(bytes));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(bytes)));
+
+            // ensure the same lines
+            String line;
+            while ((line = reader.readLine()) != null)
+                assertEquals(
+                        "Failure - Command is not same as line",
+                        line,
+                        input.readLine()
+                );
+            assertNull("Failure - Input is not end", input.readLine());
+
+            input.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Read line error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test read line: successful case
+     * The scheduled task is run on the game thread while waiting for the
+     * command, the task can add the command
+     */
+    @Test
+    public void testReadLineSuccessfullyScheduledTask() {
+
+        try {
+
+            // nothing is written to the pipe
+            Pipe pipe = Pipe.open();
+            final ChannelInput input = new ChannelInput(pipe.source());
+            final Thread gameThread = Thread.currentThread();
+            final int[] runs = new int[1];
+
+            // the task adds the command at the third run
+            input.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    assertSame(
+                            "Failure - Task is not run on game thread",
+                            gameThread,
+                            Thread.currentThread()
+                    );
+                    if (++runs[0] == 3)
+                        input.offer("0");
+                }
+            }, 10);
+
+            // ensure the command from the task
+            assertEquals("Failure - Command is wrong", "0", input.readLine());
+            assertEquals("Failure - Task run count is not 3", 3, runs[0]);
+            assertFalse("Failure - Input is end", input.isEnd());
+
+            input.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Read line error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The console view takes the inputs from the non-blocking input of the
+     * input stream
+     */
+    @Test
+    public void testPlaySuccessfullyConsoleView() {
+
+        try {
+
+            ChannelInput input = ChannelInput.open(new ByteArrayInputStream(
+                    "2\n5\n5\n5\nx a1;x b2\n0\n0\n".getBytes(StandardCharsets.UTF_8)));
+            StringWriter out = new StringWriter();
+            ConsoleView view = new ConsoleView(
+                    input,
+                    new BufferedWriter(out),
+                    RenderMode.FULL
+            );
+
+            ConsoleGameController controller = new ConsoleGameController(view);
+            controller.run();
+
+            // ensure the inputs are played
+            assertEquals(
+                    "Failure - Played move count is not 2",
+                    2l,
+                    controller.getPlayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Mine checked count is not 2",
+                    2l,
+                    controller.getBoard().getMineCheckedCount()
+            );
+
+            input.close();
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+}
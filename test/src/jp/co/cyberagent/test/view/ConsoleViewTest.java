@@ -6,14 +6,16 @@ import jp.co.cyberagent.components.*;
 import jp.co.cyberagent.ui.ConsoleView;
 
 import jp.co.cyberagent.ui.GameView;
+import jp.co.cyberagent.ui.RenderMode;
+import jp.co.cyberagent.ui.RunLengthDecoder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.*;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -422,7 +424,7 @@ public class ConsoleViewTest {
             assertNotNull("Failure - After create, board is null", board);
 
             // create the gird
-            Square[][] grid = makeBoard();
+            CellStore grid = makeBoard();
             // set board
             Field bGrid = Board.class.getDeclaredField("grid");
             bGrid.setAccessible(true);
@@ -498,7 +500,7 @@ public class ConsoleViewTest {
             assertNotNull("Failure - After create, board is null", board);
 
             // create the gird
-            Square[][] grid = makeBoard();
+            CellStore grid = makeBoard();
             // set board
             Field bGrid = Board.class.getDeclaredField("grid");
             bGrid.setAccessible(true);
@@ -546,153 +548,488 @@ public class ConsoleViewTest {
     }
 
     /**
-     * Create a specific game board
+     * Test show chosen square in diff mode: successful case
+     * Only the changed squares are updated by ANSI cursor position
      */
-    private Square[][] makeBoard() {
+    @Test
+    public void testShowChosenSquareSuccessfullyDiff() {
 
-        Square[][] grid = new Square[8][8];
+        try {
 
-        // first, create grid is empty square
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                grid[r][c] = createEmptySquare();
-            }
-        }
+            // create new board
+            Board board = new Board(8, 8, 10);
 
-        // put mine, 10 mine squares
-        grid[1][5] = createMineSquare();
-        grid[3][6] = createMineSquare();
-        grid[4][0] = createMineSquare();
-        grid[4][4] = createMineSquare();
-        grid[6][1] = createMineSquare();
-        grid[6][5] = createMineSquare();
-        grid[6][6] = createMineSquare();
-        grid[7][2] = createMineSquare();
-        grid[7][3] = createMineSquare();
-        grid[7][7] = createMineSquare();
+            // create the gird
+            CellStore grid = makeBoard();
+            // set board
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, grid);
 
-        // put number square
-        grid[0][4] = createNumberSquare((byte) 1);
-        grid[0][5] = createNumberSquare((byte) 1);
-        grid[0][6] = createNumberSquare((byte) 1);
-
-        grid[1][4] = createNumberSquare((byte) 1);
-        grid[1][6] = createNumberSquare((byte) 1);
-
-        grid[2][4] = createNumberSquare((byte) 1);
-        grid[2][5] = createNumberSquare((byte) 2);
-        grid[2][6] = createNumberSquare((byte) 2);
-        grid[2][7] = createNumberSquare((byte) 1);
-
-        grid[3][0] = createNumberSquare((byte) 1);
-        grid[3][1] = createNumberSquare((byte) 1);
-        grid[3][3] = createNumberSquare((byte) 1);
-        grid[3][4] = createNumberSquare((byte) 1);
-        grid[3][5] = createNumberSquare((byte) 2);
-        grid[3][7] = createNumberSquare((byte) 1);
-
-        grid[4][1] = createNumberSquare((byte) 1);
-        grid[4][3] = createNumberSquare((byte) 1);
-        grid[4][5] = createNumberSquare((byte) 2);
-        grid[4][5] = createNumberSquare((byte) 2);
-        grid[4][6] = createNumberSquare((byte) 1);
-        grid[4][7] = createNumberSquare((byte) 1);
-
-        grid[5][0] = createNumberSquare((byte) 2);
-        grid[5][1] = createNumberSquare((byte) 2);
-        grid[5][2] = createNumberSquare((byte) 1);
-        grid[5][3] = createNumberSquare((byte) 1);
-        grid[5][4] = createNumberSquare((byte) 2);
-        grid[5][5] = createNumberSquare((byte) 3);
-        grid[5][6] = createNumberSquare((byte) 2);
-        grid[5][7] = createNumberSquare((byte) 1);
-
-        grid[6][0] = createNumberSquare((byte) 1);
-        grid[6][2] = createNumberSquare((byte) 3);
-        grid[6][3] = createNumberSquare((byte) 2);
-        grid[6][4] = createNumberSquare((byte) 2);
-        grid[6][7] = createNumberSquare((byte) 2);
-
-        grid[7][0] = createNumberSquare((byte) 1);
-        grid[7][1] = createNumberSquare((byte) 2);
-        grid[7][4] = createNumberSquare((byte) 2);
-        grid[7][5] = createNumberSquare((byte) 2);
-        grid[7][6] = createNumberSquare((byte) 3);
+            // create a view
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(new OutputStreamWriter(System.out)),
+                    RenderMode.DIFF
+            );
 
-        return grid;
+            // display the board, clear the screen first
+            view.displayBoard(board);
+            assertTrue(
+                    "Failure - Display board does not clear screen",
+                    out.toString().startsWith(ConsoleView.ANSI_CLEAR +
+                                              "  abcdefgh\n")
+            );
+            out.reset();
+
+            // open the empty square, the related squares are opened
+            board.openSquare(0, 7);
+            view.displayChosenSquare(board, 0, 7);
+
+            // ensure the opened squares are updated only
+            assertEquals(
+                    "Failure - Display chosen square incorrect",
+                    "\u001B[2;9H1 " +
+                            "\u001B[3;9H1 " +
+                            "\u001B[4;9H21" +
+                            "\u001B[10;1H" + ConsoleView.ANSI_CLEAR_BELOW,
+                    out.toString());
+            out.reset();
+
+            // toggle mine check
+            board.toggleMineCheckSquare(1, 5);
+            view.displayChosenSquare(board, 1, 5);
+
+            // ensure the toggled square is updated only
+            assertEquals(
+                    "Failure - Display chosen square incorrect",
+                    "\u001B[3;8Hx" +
+                            "\u001B[10;1H" + ConsoleView.ANSI_CLEAR_BELOW,
+                    out.toString());
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display chosen square error " + e.getMessage());
+        } finally {
+            out.reset();
+        }
 
     }
 
     /**
-     * Call to non public function, create a mine square
+     * Test show chosen square in diff mode: successful case
+     * The message that is shown before the changed squares is written
+     * again after the old messages are cleared
      */
-    private MineSquare createMineSquare() {
+    @Test
+    public void testShowChosenSquareSuccessfullyDiffKeepMessage() {
 
         try {
-            // get MineSquare's constructor
-            Constructor<MineSquare> constructor =
-                    MineSquare.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
 
-            // create new mine square object
-            return constructor.newInstance();
+            // create new board
+            Board board = new Board(8, 8, 10);
+
+            // create the gird
+            CellStore grid = makeBoard();
+            // set board
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, grid);
+
+            // create a view
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(new OutputStreamWriter(System.out)),
+                    RenderMode.DIFF
+            );
+
+            view.displayBoard(board);
+            out.reset();
+
+            // the error of the chosen square, then the changed square
+            board.toggleMineCheckSquare(1, 5);
+            view.showMessage("Square has been mine marked");
+            view.displayChosenSquare(board, 1, 5);
+
+            // ensure the message is written after the clear
+            String message = ConsoleView.ANSI_RED +
+                    "Square has been mine marked" + ConsoleView.ANSI_RESET +
+                    "\n";
+            assertEquals(
+                    "Failure - Message is not kept",
+                    message +
+                            "\u001B[3;8Hx" +
+                            "\u001B[10;1H" + ConsoleView.ANSI_CLEAR_BELOW +
+                            message,
+                    out.toString());
+
         } catch (Exception e) {
-            fail("Failure - Create mine square error " + e.getMessage());
+            // test case not pass
+            fail("Failure - Display chosen square error " + e.getMessage());
+        } finally {
+            out.reset();
         }
 
-        // when square is not created successfully, test case not pass
-        fail();
+    }
 
-        return null;
+    /**
+     * Test show board in viewport: successful case
+     * The board is larger than viewport, the multi letters column index
+     * is written from top to bottom, the scroll status is displayed
+     */
+    @Test
+    public void testShowBoardSuccessfullyViewport() {
+
+        try {
+
+            // create new board, 5 rows, 30 columns
+            Board board = new Board(5, 30, 1);
+
+            // create a view, viewport is 3 rows, 4 columns
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(new OutputStreamWriter(System.out))
+            );
+            view.setViewport(3, 4);
+
+            // display the board, scroll to right 12 times (2 columns each)
+            view.displayBoard(board);
+            for (int i = 0; i < 12; i++)
+                view.panBoard(board, 0, 1);
+            out.reset();
+
+            // scroll to down
+            view.panBoard(board, 1, 0);
+
+            // ensure the viewport
+            assertEquals(
+                    "Failure - Display board in viewport incorrect",
+                    "    aa\n" +
+                            "  yzab\n" +
+                            "1 ????\n" +
+                            "2 ????\n" +
+                            "3 ????\n" +
+                            "rows 1-3 of 5, columns y-ab of 30 " +
+                            "(scroll by <, >, ^, v)\n",
+                    out.toString());
+
+            // ensure the column index
+            assertEquals(
+                    "Failure - Column index incorrect",
+                    "zz",
+                    ConsoleView.getColumnIndex(701)
+            );
+            assertEquals(
+                    "Failure - Column index incorrect",
+                    "aaa",
+                    ConsoleView.getColumnIndex(702)
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        } finally {
+            out.reset();
+        }
 
     }
 
     /**
-     * Call to non public function, create a empty square
+     * Test show board with ANSI colour: successful case
+     * The number, mine checked and opened mine squares are coloured
      */
-    private EmptySquare createEmptySquare() {
+    @Test
+    public void testShowBoardSuccessfullyColor() {
 
         try {
-            // get EmptySquare's constructor
-            Constructor<EmptySquare> constructor =
-                    EmptySquare.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
 
-            // create new empty square object
-            return constructor.newInstance();
+            // create new board
+            Board board = new Board(8, 8, 10);
+
+            // create the gird
+            CellStore grid = makeBoard();
+            // set board
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, grid);
+
+            // create a view with colour
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(new OutputStreamWriter(System.out))
+            );
+            view.setColor(true);
+
+            // open the empty square, toggle mine check, open mine
+            board.openSquare(0, 7);
+            board.toggleMineCheckSquare(1, 5);
+            board.openSquare(3, 6);
+
+            // test function
+            view.displayBoard(board);
+
+            // ensure the coloured squares
+            String[] lines = out.toString().split("\n");
+            assertEquals(
+                    "Failure - Display board with colour incorrect",
+                    "1 ?????" +
+                            ConsoleView.ANSI_YELLOW + "x" +
+                            ConsoleView.ANSI_RESET +
+                            "\u001B[34m1" + ConsoleView.ANSI_RESET + " ",
+                    lines[2]
+            );
+            assertEquals(
+                    "Failure - Display board with colour incorrect",
+                    "3 ??????" +
+                            ConsoleView.ANSI_RED + "x" +
+                            ConsoleView.ANSI_RESET + "?",
+                    lines[4]
+            );
+
         } catch (Exception e) {
-            fail("Failure - Create empty square error " + e.getMessage());
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        } finally {
+            out.reset();
         }
 
-        // when square is not created successfully, test case not pass
-        fail();
+    }
 
-        return null;
+    /**
+     * Test show board with run-length encoding: successful case
+     * The runs of same square are encoded, the decoded board is same
+     * with the full board
+     */
+    @Test
+    public void testShowBoardSuccessfullyRunLength() {
+
+        try {
+
+            // create new board
+            Board board = new Board(8, 8, 10);
+
+            // create the gird
+            CellStore grid = makeBoard();
+            // set board
+            Field bGrid = Board.class.getDeclaredField("grid");
+            bGrid.setAccessible(true);
+            bGrid.set(board, grid);
+
+            // open the empty square
+            board.openSquare(0, 7);
+
+            // display the board in full and run-length encoded mode
+            StringWriter full = new StringWriter();
+            new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(full)
+            ).displayBoard(board);
+
+            StringWriter encoded = new StringWriter();
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(encoded),
+                    RenderMode.RLE
+            );
+            view.setColor(true);
+            view.displayBoard(board);
+
+            // ensure the encoded rows, the short runs are not encoded
+            String[] lines = encoded.toString().split("\n");
+            assertEquals(
+                    "Failure - Display encoded board incorrect",
+                    "0 ?{6}1 ",
+                    lines[1]
+            );
+            assertEquals(
+                    "Failure - Display encoded board incorrect",
+                    "7 ?{8}",
+                    lines[8]
+            );
+
+            // ensure the decoded board
+            assertEquals(
+                    "Failure - Decoded board is not same with full board",
+                    full.toString(),
+                    RunLengthDecoder.decode(encoded.toString())
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        }
 
     }
 
     /**
-     * Call to non public function, create a number square
+     * Test show board with the cached header and row index: successful case
+     * The boards of different size are displayed by the same view, each
+     * board is same with the board that is displayed by the new view
      */
-    private NumberSquare createNumberSquare(byte value) {
+    @Test
+    public void testShowBoardSuccessfullyCachedHeader() {
 
         try {
-            // get NumberSquare constructor
-            Constructor<NumberSquare> constructor =
-                    NumberSquare.class.getDeclaredConstructor(byte.class);
-            constructor.setAccessible(true);
 
-            // create new number square object
-            return constructor.newInstance(value);
+            Board[] boards = {
+                    new Board(8, 8, 10),
+                    new Board(12, 30, 10),
+                    new Board(8, 8, 10)
+            };
+
+            StringWriter reused = new StringWriter();
+            ConsoleView view = new ConsoleView(
+                    new BufferedReader(new InputStreamReader(System.in)),
+                    new BufferedWriter(reused)
+            );
+
+            for (Board board : boards) {
+
+                // display by the same view and the new view
+                reused.getBuffer().setLength(0);
+                view.displayBoard(board);
+
+                StringWriter fresh = new StringWriter();
+                new ConsoleView(
+                        new BufferedReader(new InputStreamReader(System.in)),
+                        new BufferedWriter(fresh)
+                ).displayBoard(board);
+
+                // ensure the same board
+                assertEquals(
+                        "Failure - Display board with cached header incorrect",
+                        fresh.toString(),
+                        reused.toString()
+                );
+
+            }
+
+            // ensure the scrolled board, the header and row index move
+            Board large = new Board(100, 200, 10);
+            view.displayBoard(large);
+            view.panBoard(large, 1, 1);
+            String[] lines = reused.toString().split("\n");
+            assertEquals(
+                    "Failure - Scrolled row index incorrect",
+                    "25 ",
+                    lines[lines.length - 51].substring(0, 3)
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Display board error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Create a specific game board
+     */
+    private CellStore makeBoard() {
+
+        // first, create grid is empty square
+        CellStore grid = createCellStore(8, 8);
+
+        // put mine, 10 mine squares
+        setCell(grid, 1, 5, CellStore.MINE);
+        setCell(grid, 3, 6, CellStore.MINE);
+        setCell(grid, 4, 0, CellStore.MINE);
+        setCell(grid, 4, 4, CellStore.MINE);
+        setCell(grid, 6, 1, CellStore.MINE);
+        setCell(grid, 6, 5, CellStore.MINE);
+        setCell(grid, 6, 6, CellStore.MINE);
+        setCell(grid, 7, 2, CellStore.MINE);
+        setCell(grid, 7, 3, CellStore.MINE);
+        setCell(grid, 7, 7, CellStore.MINE);
+
+        // put number square
+        setCell(grid, 0, 4, (byte) 1);
+        setCell(grid, 0, 5, (byte) 1);
+        setCell(grid, 0, 6, (byte) 1);
+
+        setCell(grid, 1, 4, (byte) 1);
+        setCell(grid, 1, 6, (byte) 1);
+
+        setCell(grid, 2, 4, (byte) 1);
+        setCell(grid, 2, 5, (byte) 2);
+        setCell(grid, 2, 6, (byte) 2);
+        setCell(grid, 2, 7, (byte) 1);
+
+        setCell(grid, 3, 0, (byte) 1);
+        setCell(grid, 3, 1, (byte) 1);
+        setCell(grid, 3, 3, (byte) 1);
+        setCell(grid, 3, 4, (byte) 1);
+        setCell(grid, 3, 5, (byte) 2);
+        setCell(grid, 3, 7, (byte) 1);
+
+        setCell(grid, 4, 1, (byte) 1);
+        setCell(grid, 4, 3, (byte) 1);
+        setCell(grid, 4, 5, (byte) 2);
+        setCell(grid, 4, 5, (byte) 2);
+        setCell(grid, 4, 6, (byte) 1);
+        setCell(grid, 4, 7, (byte) 1);
+
+        setCell(grid, 5, 0, (byte) 2);
+        setCell(grid, 5, 1, (byte) 2);
+        setCell(grid, 5, 2, (byte) 1);
+        setCell(grid, 5, 3, (byte) 1);
+        setCell(grid, 5, 4, (byte) 2);
+        setCell(grid, 5, 5, (byte) 3);
+        setCell(grid, 5, 6, (byte) 2);
+        setCell(grid, 5, 7, (byte) 1);
+
+        setCell(grid, 6, 0, (byte) 1);
+        setCell(grid, 6, 2, (byte) 3);
+        setCell(grid, 6, 3, (byte) 2);
+        setCell(grid, 6, 4, (byte) 2);
+        setCell(grid, 6, 7, (byte) 2);
+
+        setCell(grid, 7, 0, (byte) 1);
+        setCell(grid, 7, 1, (byte) 2);
+        setCell(grid, 7, 4, (byte) 2);
+        setCell(grid, 7, 5, (byte) 2);
+        setCell(grid, 7, 6, (byte) 3);
+
+        return grid;
+
+    }
+
+    /**
+     * Create a heap cell store
+     */
+    private CellStore createCellStore(int height, int width) {
+
+        try {
+            // create new cell store, all cells are empty square
+            return new HeapCellStore(height, width);
         } catch (Exception e) {
-            fail("Failure - Create number square error " + e.getMessage());
+            fail("Failure - Create cell store error " + e.getMessage());
         }
 
-        // when square is not created successfully, test case not pass
+        // when store is not created successfully, test case not pass
         fail();
 
         return null;
 
     }
 
+    /**
+     * Call to non public function, set the packed cell
+     */
+    private void setCell(CellStore grid, int row, int col, byte cell) {
+
+        try {
+            // get CellStore's set method
+            Method method = CellStore.class.getDeclaredMethod(
+                    "set", long.class, byte.class);
+            method.setAccessible(true);
+
+            // set the packed cell
+            method.invoke(grid, grid.indexOf(row, col), cell);
+        } catch (Exception e) {
+            fail("Failure - Set cell error " + e.getMessage());
+        }
+
+    }
+
 }
@@ -0,0 +1,314 @@
+package jp.co.cyberagent.test.view;
+
+import jp.co.cyberagent.components.PlayStatus;
+import jp.co.cyberagent.logic.ConsoleGameController;
+import jp.co.cyberagent.ui.HeadlessGameView;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HeadlessGameViewTest {
+
+    /**
+     * Test play: successful case
+     * The moves are played, the wrong input is counted as message, the
+     * game exits when the inputs run out
+     */
+    @Test
+    public void testPlaySuccessfully() {
+
+        try {
+
+            // setting 5x5 board with 5 mines, 3 moves and 1 wrong input
+            HeadlessGameView view = new HeadlessGameView(new String[] {
+                    "2", "5", "5", "5",
+                    "a1", "x",
+                    "b2", "x",
+                    "1a",
+                    "a1", "x"
+            });
+            (new ConsoleGameController(view)).run();
+
+            // ensure the outcome
+            assertTrue("Failure - The inputs are not read", view.isEnd());
+            assertEquals(
+                    "Failure - Board count is not 1", 1l, view.getBoardCount()
+            );
+            assertEquals(
+                    "Failure - Displayed move count is not 3",
+                    3l,
+                    view.getDisplayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Message count is not 1",
+                    1l,
+                    view.getMessageCount()
+            );
+
+            // ensure the mine checked squares, a1 is toggled twice
+            assertEquals(
+                    "Failure - Mine checked count is not 1",
+                    1l,
+                    view.getLastBoard().getMineCheckedCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The moves in one line are played by one input, the board is
+     * displayed once after the last move
+     */
+    @Test
+    public void testPlaySuccessfullyOneLine() {
+
+        try {
+
+            // setting 5x5 board with 5 mines, 3 moves in one line
+            HeadlessGameView view = new HeadlessGameView(new String[] {
+                    "2", "5", "5", "5",
+                    "x a1; x b2;x c3",
+                    "x b2"
+            });
+            ConsoleGameController controller = new ConsoleGameController(view);
+            controller.run();
+
+            // ensure the board is displayed once per line
+            assertEquals(
+                    "Failure - Displayed move count is not 2",
+                    2l,
+                    view.getDisplayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Message count is not 0",
+                    0l,
+                    view.getMessageCount()
+            );
+
+            // ensure the moves in one line are counted one by one
+            assertEquals(
+                    "Failure - Played move count is not 4",
+                    4l,
+                    controller.getPlayedMoveCount()
+            );
+
+            assertEquals(
+                    "Failure - Coalesced move count is not 2",
+                    2l,
+                    controller.getCoalescedMoveCount()
+            );
+
+            // ensure the mine checked squares, b2 is toggled twice
+            assertEquals(
+                    "Failure - Mine checked count is not 2",
+                    2l,
+                    view.getLastBoard().getMineCheckedCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The inputs run out after the square without mode, the game ends at
+     * the square mode prompt and exits
+     */
+    @Test(timeout = 5000)
+    public void testPlaySuccessfullyEndAfterSquare() {
+
+        try {
+
+            HeadlessGameView view = new HeadlessGameView(new String[] {
+                    "1", "b2"
+            });
+            (new ConsoleGameController(view)).run();
+
+            // ensure the game exits without the move
+            assertTrue("Failure - The inputs are not read", view.isEnd());
+            assertEquals(
+                    "Failure - Displayed move count is not 0",
+                    0l,
+                    view.getDisplayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Message count is not 0",
+                    0l,
+                    view.getMessageCount()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The streamed move log is truncated after the square without mode,
+     * the game ends at the square mode prompt and exits
+     */
+    @Test(timeout = 5000)
+    public void testPlaySuccessfullyStreamTruncated() {
+
+        try {
+
+            HeadlessGameView view = new HeadlessGameView(new BufferedReader(
+                    new StringReader("2\n5\n5\n5\nx a1;x b2\nc3")));
+            ConsoleGameController controller =
+                    new ConsoleGameController(view, 42l);
+            controller.run();
+
+            // ensure the moves before the truncated one are played
+            assertTrue("Failure - The inputs are not read", view.isEnd());
+            assertEquals(
+                    "Failure - Played move count is not 2",
+                    2l,
+                    controller.getPlayedMoveCount()
+            );
+            assertEquals(
+                    "Failure - Mine checked count is not 2",
+                    2l,
+                    view.getLastBoard().getMineCheckedCount()
+            );
+            assertEquals(
+                    "Failure - Status is not normal",
+                    PlayStatus.NORMAL,
+                    view.getLastStatus()
+            );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The 3x3 board with 8 mines is won or lost by the first open, the
+     * inputs are played again after rewind
+     */
+    @Test
+    public void testPlaySuccessfullyEndAndRewind() {
+
+        try {
+
+            HeadlessGameView view = new HeadlessGameView(new String[] {
+                    "2", "3", "3", "8",
+                    "a0", "o"
+            });
+
+            for (int i = 0; i < 2; i++) {
+
+                view.rewind();
+                (new ConsoleGameController(view)).run();
+
+                // ensure the game is ended once by the move
+                assertEquals(
+                        "Failure - Displayed move count is not 1",
+                        1l,
+                        view.getDisplayedMoveCount()
+                );
+                assertEquals(
+                        "Failure - The game is not won or lost",
+                        1l,
+                        view.getWinCount() + view.getLoseCount()
+                );
+
+            }
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Test play: successful case
+     * The inputs are streamed from the reader, the games that created by
+     * same seed have same outcome
+     */
+    @Test
+    public void testPlaySuccessfullyStreamWithSeed() {
+
+        try {
+
+            String inputs = "2\n10\n10\n10\n" +
+                            "o a0;o e5;o j9\n" +
+                            "x b1\n";
+
+            HeadlessGameView[] views = new HeadlessGameView[2];
+            for (int i = 0; i < views.length; i++) {
+
+                views[i] = new HeadlessGameView(
+                        new BufferedReader(new StringReader(inputs)));
+                (new ConsoleGameController(views[i], 42l)).run();
+
+                // ensure the inputs are read and the game is played
+                assertTrue(
+                        "Failure - The inputs are not read", views[i].isEnd()
+                );
+                assertNotNull(
+                        "Failure - The board is not displayed",
+                        views[i].getLastBoard()
+                );
+
+            }
+
+            // ensure the same outcome
+            assertEquals(
+                    "Failure - Status is not same",
+                    views[0].getLastStatus(),
+                    views[1].getLastStatus()
+            );
+            assertEquals(
+                    "Failure - Opened count is not same",
+                    views[0].getLastBoard().getOpenedCount(),
+                    views[1].getLastBoard().getOpenedCount()
+            );
+            assertEquals(
+                    "Failure - Displayed move count is not same",
+                    views[0].getDisplayedMoveCount(),
+                    views[1].getDisplayedMoveCount()
+            );
+
+            // ensure the ended game status
+            if (views[0].getLoseCount() > 0)
+                assertEquals(
+                        "Failure - Status is not lose",
+                        PlayStatus.LOSE,
+                        views[0].getLastStatus()
+                );
+
+        } catch (Exception e) {
+            // test case not pass
+            fail("Failure - Play error " + e.getMessage());
+        }
+
+        // ensure the streamed inputs cannot be read again
+        try {
+            new HeadlessGameView(
+                    new BufferedReader(new StringReader(""))).rewind();
+            fail("Failure - The streamed inputs are read again");
+        } catch (IllegalStateException e) {
+            // test case pass
+        }
+
+    }
+
+}